@@ -14,12 +14,13 @@ import {
   Slider,
   Typography,
   Chip,
-  Stack
+  Stack,
+  Autocomplete
 } from '@mui/material';
 import { useNavigate } from 'react-router-dom';
 import { getCategories } from '../services/category.service';
-import { filterProducts } from '../services/product.service';
-import { Category } from '../types';
+import { filterProducts, suggestProducts } from '../services/product.service';
+import { Category, Suggestion } from '../types';
 
 interface SearchDialogProps {
   open: boolean;
@@ -38,10 +39,37 @@ const SearchDialog: React.FC<SearchDialogProps> = ({ open, onClose }) => {
     maxPrice: 10000000
   });
 
+  const [suggestions, setSuggestions] = useState<Suggestion[]>([]);
+
   useEffect(() => {
     getCategories().then(setCategories);
   }, []);
 
+  useEffect(() => {
+    const prefix = searchParams.name.trim();
+    if (!prefix) {
+      setSuggestions([]);
+      return;
+    }
+    const timer = setTimeout(() => {
+      suggestProducts(prefix).then(setSuggestions).catch(() => setSuggestions([]));
+    }, 150);
+    return () => clearTimeout(timer);
+  }, [searchParams.name]);
+
+  const handleSuggestionSelected = (suggestion: Suggestion | string | null) => {
+    if (!suggestion || typeof suggestion === 'string') {
+      return;
+    }
+    if (suggestion.type === 'brand') {
+      setSearchParams({ ...searchParams, name: '', brand: suggestion.text });
+    } else if (suggestion.type === 'category') {
+      setSearchParams({ ...searchParams, name: '', categoryId: String(suggestion.id) });
+    } else {
+      setSearchParams({ ...searchParams, name: suggestion.text });
+    }
+  };
+
   const handleSearch = async () => {
     try {
       console.log('Searching with params:', searchParams);
@@ -73,11 +101,19 @@ const SearchDialog: React.FC<SearchDialogProps> = ({ open, onClose }) => {
       <DialogTitle>Tìm kiếm sản phẩm</DialogTitle>
       <DialogContent>
         <Box sx={{ display: 'flex', flexDirection: 'column', gap: 2, pt: 1 }}>
-          <TextField
-            label="Tên sản phẩm"
-            value={searchParams.name}
-            onChange={(e) => setSearchParams({ ...searchParams, name: e.target.value })}
-            fullWidth
+          <Autocomplete
+            freeSolo
+            filterOptions={(options) => options}
+            options={suggestions}
+            getOptionLabel={(option) => (typeof option === 'string' ? option : option.text)}
+            inputValue={searchParams.name}
+            onInputChange={(_, value, reason) => {
+              if (reason === 'input' || reason === 'clear') {
+                setSearchParams({ ...searchParams, name: value });
+              }
+            }}
+            onChange={(_, value) => handleSuggestionSelected(value)}
+            renderInput={(params) => <TextField {...params} label="Tên sản phẩm" fullWidth />}
           />
 
           <FormControl fullWidth>
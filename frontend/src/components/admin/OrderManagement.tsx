@@ -8,29 +8,74 @@ import {
   TableContainer,
   TableHead,
   TableRow,
+  TablePagination,
   Typography,
   Select,
   MenuItem,
   FormControl,
   Chip,
+  Checkbox,
+  Button,
+  Alert,
 } from '@mui/material';
 import { Order } from '../../types';
 import adminService from '../../services/admin.service';
-import { OrderStatus } from '../../types/order';
+import { ORDER_STATUS_TRANSITIONS, OrderStatus, OrderStatusUpdateResult } from '../../types/order';
+
+const STATUS_LABELS: Record<OrderStatus, string> = {
+  [OrderStatus.PENDING]: 'Chờ xác nhận',
+  [OrderStatus.CONFIRMED]: 'Đã xác nhận',
+  [OrderStatus.SHIPPING]: 'Đang giao hàng',
+  [OrderStatus.DELIVERED]: 'Đã giao hàng',
+  [OrderStatus.CANCELLED]: 'Đã hủy',
+};
 
 const OrderManagement: React.FC = () => {
   const [orders, setOrders] = useState<Order[]>([]);
+  const [page, setPage] = useState(0);
+  const [rowsPerPage, setRowsPerPage] = useState(20);
+  const [totalElements, setTotalElements] = useState(0);
+  const [selected, setSelected] = useState<number[]>([]);
+  const [bulkStatus, setBulkStatus] = useState<OrderStatus>(OrderStatus.CONFIRMED);
+  const [bulkResult, setBulkResult] = useState<OrderStatusUpdateResult | null>(null);
 
   useEffect(() => {
+    const fetchOrders = async () => {
+      try {
+        const response = await adminService.getOrders(page, rowsPerPage);
+        setOrders(response.data.content);
+        setTotalElements(response.data.totalElements);
+        setSelected([]);
+      } catch (error) {
+        console.error('Error fetching orders:', error);
+      }
+    };
     fetchOrders();
-  }, []);
+  }, [page, rowsPerPage]);
 
-  const fetchOrders = async () => {
+  const toggleSelected = (orderId: number) => {
+    setSelected(current =>
+      current.includes(orderId) ? current.filter(id => id !== orderId) : [...current, orderId]
+    );
+  };
+
+  const toggleAll = () => {
+    setSelected(selected.length === orders.length ? [] : orders.map(order => order.id));
+  };
+
+  const handleBulkStatusChange = async () => {
     try {
-      const response = await adminService.getAllOrders();
-      setOrders(response.data);
+      const response = await adminService.updateOrderStatuses(selected, bulkStatus);
+      const updatedIds = new Set(
+        response.data.outcomes.filter(o => o.outcome === 'UPDATED').map(o => o.orderId)
+      );
+      setOrders(orders.map(order =>
+        updatedIds.has(order.id) ? { ...order, status: bulkStatus } : order
+      ));
+      setBulkResult(response.data);
+      setSelected([]);
     } catch (error) {
-      console.error('Error fetching orders:', error);
+      console.error('Error updating order statuses:', error);
     }
   };
 
@@ -67,10 +112,51 @@ const OrderManagement: React.FC = () => {
       <Typography variant="h4" sx={{ mb: 4 }}>
         Quản lý đơn hàng
       </Typography>
+      {bulkResult && (
+        <Alert
+          severity={bulkResult.updated === bulkResult.outcomes.length ? 'success' : 'warning'}
+          onClose={() => setBulkResult(null)}
+          sx={{ mb: 2 }}
+        >
+          Đã cập nhật {bulkResult.updated}/{bulkResult.outcomes.length} đơn hàng
+          {bulkResult.outcomes.some(o => o.outcome !== 'UPDATED') && (
+            <> — không cập nhật: {bulkResult.outcomes
+              .filter(o => o.outcome !== 'UPDATED')
+              .map(o => `#${o.orderId} (${o.outcome})`)
+              .join(', ')}</>
+          )}
+        </Alert>
+      )}
+      {selected.length > 0 && (
+        <Paper sx={{ p: 2, mb: 2, display: 'flex', alignItems: 'center', gap: 2 }}>
+          <Typography>Đã chọn {selected.length} đơn hàng</Typography>
+          <FormControl size="small">
+            <Select
+              value={bulkStatus}
+              onChange={(e) => setBulkStatus(e.target.value as OrderStatus)}
+              sx={{ minWidth: 160 }}
+            >
+              {Object.values(OrderStatus).map(status => (
+                <MenuItem key={status} value={status}>{STATUS_LABELS[status]}</MenuItem>
+              ))}
+            </Select>
+          </FormControl>
+          <Button variant="contained" onClick={handleBulkStatusChange}>
+            Cập nhật trạng thái
+          </Button>
+        </Paper>
+      )}
       <TableContainer component={Paper}>
         <Table>
           <TableHead>
             <TableRow>
+              <TableCell padding="checkbox">
+                <Checkbox
+                  indeterminate={selected.length > 0 && selected.length < orders.length}
+                  checked={orders.length > 0 && selected.length === orders.length}
+                  onChange={toggleAll}
+                />
+              </TableCell>
               <TableCell>ID</TableCell>
               <TableCell>Khách hàng</TableCell>
               <TableCell>Tổng tiền</TableCell>
@@ -81,7 +167,13 @@ const OrderManagement: React.FC = () => {
           </TableHead>
           <TableBody>
             {orders.map((order) => (
-              <TableRow key={order.id}>
+              <TableRow key={order.id} selected={selected.includes(order.id)}>
+                <TableCell padding="checkbox">
+                  <Checkbox
+                    checked={selected.includes(order.id)}
+                    onChange={() => toggleSelected(order.id)}
+                  />
+                </TableCell>
                 <TableCell>{order.id}</TableCell>
                 <TableCell>{order.customerName}</TableCell>
                 <TableCell>{order.totalAmount.toLocaleString()}đ</TableCell>
@@ -100,11 +192,16 @@ const OrderManagement: React.FC = () => {
                       onChange={(e) => handleStatusChange(order.id, e.target.value as OrderStatus)}
                       sx={{ minWidth: 120 }}
                     >
-                      <MenuItem value={OrderStatus.PENDING}>Chờ xác nhận</MenuItem>
-                      <MenuItem value={OrderStatus.CONFIRMED}>Đã xác nhận</MenuItem>
-                      <MenuItem value={OrderStatus.SHIPPING}>Đang giao hàng</MenuItem>
-                      <MenuItem value={OrderStatus.DELIVERED}>Đã giao hàng</MenuItem>
-                      <MenuItem value={OrderStatus.CANCELLED}>Đã hủy</MenuItem>
+                      {Object.values(OrderStatus).map(status => (
+                        <MenuItem
+                          key={status}
+                          value={status}
+                          disabled={status !== order.status
+                            && !ORDER_STATUS_TRANSITIONS[order.status as OrderStatus]?.includes(status)}
+                        >
+                          {STATUS_LABELS[status]}
+                        </MenuItem>
+                      ))}
                     </Select>
                   </FormControl>
                 </TableCell>
@@ -112,6 +209,19 @@ const OrderManagement: React.FC = () => {
             ))}
           </TableBody>
         </Table>
+        <TablePagination
+          component="div"
+          count={totalElements}
+          page={page}
+          rowsPerPage={rowsPerPage}
+          rowsPerPageOptions={[10, 20, 50, 100]}
+          onPageChange={(_, newPage) => setPage(newPage)}
+          onRowsPerPageChange={(e) => {
+            setRowsPerPage(parseInt(e.target.value, 10));
+            setPage(0);
+          }}
+          labelRowsPerPage="Số dòng mỗi trang"
+        />
       </TableContainer>
     </Box>
   );
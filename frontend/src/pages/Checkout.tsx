@@ -1,4 +1,5 @@
-import React, { useState } from 'react';
+import React, { useRef, useState } from 'react';
+import axios from 'axios';
 import { useSelector } from 'react-redux';
 import { useNavigate } from 'react-router-dom';
 import {
@@ -13,7 +14,7 @@ import {
     CircularProgress
 } from '@mui/material';
 import { RootState } from '../store';
-import { createOrder } from '../services/order.service';
+import { createOrder, OrderRejectedError } from '../services/order.service';
 import { OrderDto, OrderItemDto } from '../types/order';
 
 const Checkout: React.FC = () => {
@@ -21,6 +22,8 @@ const Checkout: React.FC = () => {
     const { items } = useSelector((state: RootState) => state.cart);
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState<string | null>(null);
+    // Kept across resubmits after a timeout or network error, so a retry cannot place the order twice
+    const idempotencyKey = useRef(crypto.randomUUID());
     const [formData, setFormData] = useState({
         customerName: '',
         customerEmail: '',
@@ -56,9 +59,23 @@ const Checkout: React.FC = () => {
                 totalAmount: items.reduce((total, item) => total + item.productPrice * item.quantity, 0)
             };
 
-            const order = await createOrder(orderData);
+            const order = await createOrder(orderData, idempotencyKey.current);
             navigate(`/order-success/${order.id}`);
         } catch (err) {
+            const status = axios.isAxiosError(err) ? err.response?.status
+                : err instanceof OrderRejectedError ? err.status : undefined;
+            if (status !== undefined) {
+                // The server answered, so the next attempt is a new order
+                idempotencyKey.current = crypto.randomUUID();
+            }
+            if (status === 409) {
+                setError('Một số sản phẩm trong giỏ hàng không còn đủ hàng. Vui lòng điều chỉnh số lượng.');
+                return;
+            }
+            if (status === 429) {
+                setError('Hệ thống đang có quá nhiều đơn hàng. Vui lòng thử lại sau giây lát.');
+                return;
+            }
             setError('Có lỗi xảy ra khi đặt hàng. Vui lòng thử lại sau.');
         } finally {
             setLoading(false);
@@ -1,7 +1,7 @@
 import React, { useEffect, useState } from 'react';
 import { Box, Container, Typography, Card, CardMedia, CardContent, Button, Chip, Stack, Skeleton } from '@mui/material';
 import { getCategories } from '../services/category.service';
-import { getProducts } from '../services/product.service';
+import { getBestsellers, getProducts } from '../services/product.service';
 import { Category, Product, ProductResponse } from '../types';
 import { useNavigate } from 'react-router-dom';
 import bannerImage1 from '../assets/banner1.jpg'
@@ -33,7 +33,7 @@ const Home: React.FC = () => {
   const [hotDeals, setHotDeals] = useState<Product[]>([]);
 
   useEffect(() => {
-    Promise.all([getCategories(), getProducts()]).then(([cats, prods]) => {
+    Promise.all([getCategories(), getProducts(), getBestsellers(6)]).then(([cats, prods, bestsellers]) => {
       console.log('Categories:', cats);
       console.log('Products:', prods);
 
@@ -46,9 +46,8 @@ const Home: React.FC = () => {
       const productsList = Array.isArray((prods as ProductResponse)?.content) ? (prods as ProductResponse).content : [];
       setProducts(productsList);
       
-      // Lấy ngẫu nhiên 6 sản phẩm cho hot deals
-      const shuffled = [...productsList].sort(() => 0.5 - Math.random());
-      setHotDeals(shuffled.slice(0, 6));
+      // Hot deals: 6 sản phẩm bán chạy nhất
+      setHotDeals(Array.isArray(bestsellers) ? bestsellers : []);
       
       setLoading(false);
     });
@@ -176,7 +175,7 @@ const Home: React.FC = () => {
                         component="img"
                         height="120"
                         image={prod.imageUrls && prod.imageUrls.length > 0 
-                            ? `http://localhost:8080${prod.imageUrls[0]}` // Thêm domain backend
+                            ? `http://localhost:8080${prod.thumbnailUrls?.[0] || prod.imageUrls[0]}` // Thêm domain backend
                             : 'https://via.placeholder.com/120'}
                         alt={prod.name}
                         sx={{ objectFit: 'contain' }}
@@ -228,7 +227,7 @@ const Home: React.FC = () => {
                     component="img"
                     height="120"
                         image={deal.imageUrls && deal.imageUrls.length > 0 
-                            ? `http://localhost:8080${deal.imageUrls[0]}`
+                            ? `http://localhost:8080${deal.thumbnailUrls?.[0] || deal.imageUrls[0]}`
                             : 'https://via.placeholder.com/120'}
                     alt={deal.name}
                         sx={{ objectFit: 'contain' }}
@@ -278,7 +277,7 @@ const Home: React.FC = () => {
                         component="img"
                         height="120"
                         image={prod.imageUrls && prod.imageUrls.length > 0 
-                            ? `http://localhost:8080${prod.imageUrls[0]}`
+                            ? `http://localhost:8080${prod.thumbnailUrls?.[0] || prod.imageUrls[0]}`
                             : 'https://via.placeholder.com/120'}
                         alt={prod.name}
                         sx={{ objectFit: 'contain' }}
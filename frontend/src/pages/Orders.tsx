@@ -12,8 +12,8 @@ import {
     Chip,
     Button
 } from '@mui/material';
-import { getAllOrders } from '../services/order.service';
-import { OrderDto } from '../types/order';
+import { getMyOrders } from '../services/order.service';
+import { OrderSummary } from '../types/order';
 import { useNavigate } from 'react-router-dom';
 import ShoppingBagIcon from '@mui/icons-material/ShoppingBag';
 
@@ -51,18 +51,23 @@ const getStatusText = (status: string) => {
     }
 };
 
+const ORDERS_PER_PAGE = 10;
+
 const Orders: React.FC = () => {
     const navigate = useNavigate();
     const { user } = useSelector((state: RootState) => state.auth);
-    const [orders, setOrders] = useState<OrderDto[]>([]);
+    const [orders, setOrders] = useState<OrderSummary[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | undefined>();
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [error, setError] = useState<string | null>(null);
 
     useEffect(() => {
         const fetchOrders = async () => {
             try {
-                const ordersData = await getAllOrders();
-                setOrders(ordersData);
+                const page = await getMyOrders(undefined, ORDERS_PER_PAGE, true);
+                setOrders(page.content);
+                setNextCursor(page.hasNext ? page.nextCursor : undefined);
             } catch (err) {
                 setError('Không thể tải danh sách đơn hàng');
             } finally {
@@ -73,6 +78,19 @@ const Orders: React.FC = () => {
         fetchOrders();
     }, []);
 
+    const loadMore = async () => {
+        setLoadingMore(true);
+        try {
+            const page = await getMyOrders(nextCursor, ORDERS_PER_PAGE, true);
+            setOrders(current => [...current, ...page.content]);
+            setNextCursor(page.hasNext ? page.nextCursor : undefined);
+        } catch (err) {
+            setError('Không thể tải danh sách đơn hàng');
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     if (loading) {
         return (
             <Box sx={{ display: 'flex', justifyContent: 'center', alignItems: 'center', minHeight: '60vh' }}>
@@ -124,12 +142,12 @@ const Orders: React.FC = () => {
                                     Đơn hàng #{order.id}
                                 </Typography>
                                 <Typography variant="body2" color="text.secondary">
-                                    {new Date(order.orderDate!).toLocaleString('vi-VN')}
+                                    {new Date(order.orderDate).toLocaleString('vi-VN')}
                                 </Typography>
                             </Box>
                             <Chip
-                                label={getStatusText(order.status || '')}
-                                color={getStatusColor(order.status || '') as any}
+                                label={getStatusText(order.status)}
+                                color={getStatusColor(order.status) as any}
                                 size="small"
                             />
                         </Box>
@@ -137,7 +155,7 @@ const Orders: React.FC = () => {
                         <Divider sx={{ my: 2 }} />
 
                         <Box sx={{ display: 'flex', flexDirection: 'column', gap: 2 }}>
-                            {order.orderItems.map((item) => (
+                            {(order.orderItems ?? []).map((item) => (
                                 <Box
                                     key={item.id}
                                     sx={{
@@ -186,6 +204,14 @@ const Orders: React.FC = () => {
                     </Paper>
                 ))}
             </Box>
+
+            {nextCursor && (
+                <Box sx={{ display: 'flex', justifyContent: 'center', mt: 3 }}>
+                    <Button variant="outlined" onClick={loadMore} disabled={loadingMore}>
+                        {loadingMore ? <CircularProgress size={24} /> : 'Xem thêm'}
+                    </Button>
+                </Box>
+            )}
         </Container>
     );
 };
@@ -1,6 +1,6 @@
 import api from './api';
-import { User, Order, Product, Category } from '../types';
-import { OrderStatus } from '../types/order';
+import { User, OrderPageResponse, Product, Category } from '../types';
+import { OrderStatus, OrderStatusUpdateResult } from '../types/order';
 
 export interface DashboardStats {
   totalUsers: number;
@@ -29,14 +29,21 @@ const adminService = {
   },
 
   // Quản lý đơn hàng
-  getAllOrders: () => {
-    return api.get<Order[]>('/admin/orders');
+  getOrders: (page: number, size: number, status?: OrderStatus) => {
+    return api.get<OrderPageResponse>('/admin/orders', {
+      params: { page, size, status },
+    });
   },
 
   updateOrderStatus: (orderId: number, status: OrderStatus) => {
     return api.put(`/admin/orders/${orderId}/status`, { status });
   },
 
+  // Một request cho nhiều đơn hàng, kết quả trả về theo từng đơn
+  updateOrderStatuses: (orderIds: number[], status: OrderStatus) => {
+    return api.put<OrderStatusUpdateResult>('/admin/orders/status', { orderIds, status });
+  },
+
   // Quản lý sản phẩm
   getAllProducts: () => {
     return api.get<Product[]>('/admin/products');
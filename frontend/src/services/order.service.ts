@@ -1,13 +1,35 @@
 import api from './api';
-import { OrderDto } from '../types/order';
+import { OrderDto, OrderHistoryPage, OrderIntake } from '../types/order';
 
 const API_URL = '/orders';
+const INTAKE_POLL_INTERVAL_MS = 500;
 
-export const createOrder = async (orderData: OrderDto): Promise<OrderDto> => {
-    const response = await api.post(API_URL, orderData);
-    return response.data;
+// With asynchronous intake the server answers 202 and a handle; wait until the order is placed.
+// Sending the same idempotency key again returns the order placed the first time.
+export const createOrder = async (orderData: OrderDto, idempotencyKey?: string): Promise<OrderDto> => {
+    const response = await api.post(API_URL, orderData, {
+        headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : undefined
+    });
+    if (response.status !== 202) {
+        return response.data;
+    }
+    let intake: OrderIntake = response.data;
+    while (intake.status === 'QUEUED') {
+        await new Promise(resolve => setTimeout(resolve, INTAKE_POLL_INTERVAL_MS));
+        intake = (await api.get(`${API_URL}/${intake.handle}`)).data;
+    }
+    if (intake.status === 'REJECTED') {
+        throw new OrderRejectedError(intake.errorStatus ?? 500, intake.error ?? 'Order rejected');
+    }
+    return intake.order as OrderDto;
 };
 
+export class OrderRejectedError extends Error {
+    constructor(public readonly status: number, message: string) {
+        super(message);
+    }
+}
+
 export const getOrder = async (id: number): Promise<OrderDto> => {
     const response = await api.get(`${API_URL}/${id}`);
     return response.data;
@@ -18,6 +40,14 @@ export const getAllOrders = async (): Promise<OrderDto[]> => {
     return response.data;
 };
 
+// Orders of the signed-in customer, newest first; pass nextCursor back for the following page
+export const getMyOrders = async (cursor?: string, size = 10, includeItems = false): Promise<OrderHistoryPage> => {
+    const response = await api.get(`${API_URL}/mine`, {
+        params: { cursor, size, includeItems }
+    });
+    return response.data;
+};
+
 export const updateOrderStatus = async (id: number, status: string): Promise<OrderDto> => {
     const response = await api.put(`${API_URL}/${id}/status?status=${status}`);
     return response.data;
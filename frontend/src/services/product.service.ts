@@ -1,5 +1,5 @@
 import api from './api';
-import { Product, ProductResponse } from '../types';
+import { Product, ProductBatch, ProductResponse, Suggestion } from '../types';
 
 export interface ProductFilter {
   name?: string;
@@ -22,6 +22,12 @@ export const getProduct = async (id: number): Promise<Product> => {
   return response.data;
 };
 
+// One request for many ids; results come back in the order asked for, unknown ids in missingIds
+export const getProductsByIds = async (ids: number[]): Promise<ProductBatch> => {
+  const response = await api.post<ProductBatch>('/products/batch', { ids });
+  return response.data;
+};
+
 export const createProduct = async (product: Omit<Product, 'id'>): Promise<Product> => {
   const response = await api.post('/products', product);
   return response.data;
@@ -36,6 +42,16 @@ export const deleteProduct = async (id: number): Promise<void> => {
   await api.delete(`/products/${id}`);
 };
 
+export const getBestsellers = async (limit = 10, categoryId?: number): Promise<Product[]> => {
+  const response = await api.get<Product[]>('/products/bestsellers', { params: { limit, categoryId } });
+  return response.data;
+};
+
+export const suggestProducts = async (prefix: string, limit = 8): Promise<Suggestion[]> => {
+  const response = await api.get<Suggestion[]>('/products/suggest', { params: { q: prefix, limit } });
+  return response.data;
+};
+
 export const filterProducts = async (filter: ProductFilter): Promise<ProductResponse> => {
   console.log('Filtering products with criteria:', filter);
   
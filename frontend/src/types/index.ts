@@ -26,9 +26,22 @@ export interface Product {
   category: Category;
   stock: number;
   imageUrls: string[];
+  thumbnailUrls?: string[];
   sold: number;
 }
 
+export interface ProductBatch {
+  products: Product[];
+  missingIds: number[];
+}
+
+export interface Suggestion {
+  text: string;
+  type: 'product' | 'brand' | 'category';
+  id?: number;
+  weight: number;
+}
+
 export interface Category {
   id: number;
   name: string;
@@ -68,6 +81,14 @@ export interface Order {
   orderDate: string;
 }
 
+export interface OrderPageResponse {
+  content: Order[];
+  number: number;
+  size: number;
+  totalElements: number;
+  totalPages: number;
+}
+
 export interface ProductResponse {
   content: Product[];
   pageable: {
@@ -19,10 +19,56 @@ export interface OrderDto {
     totalAmount: number;
 }
 
+export interface OrderSummary {
+    id: number;
+    orderDate: string;
+    status: string;
+    totalAmount: number;
+    orderItems?: OrderItemDto[];
+}
+
+export interface OrderHistoryPage {
+    content: OrderSummary[];
+    size: number;
+    hasNext: boolean;
+    nextCursor?: string;
+}
+
+export interface OrderIntake {
+    handle: string;
+    status: 'QUEUED' | 'COMPLETED' | 'REJECTED';
+    submittedAt: string;
+    orderId?: number;
+    order?: OrderDto;
+    errorStatus?: number;
+    error?: string;
+}
+
 export enum OrderStatus {
     PENDING = 'PENDING',
     CONFIRMED = 'CONFIRMED',
     SHIPPING = 'SHIPPING',
     DELIVERED = 'DELIVERED',
     CANCELLED = 'CANCELLED'
-} 
\ No newline at end of file
+} 
+
+// Mirrors Order.OrderStatus.canTransitionTo on the server
+export const ORDER_STATUS_TRANSITIONS: Record<OrderStatus, OrderStatus[]> = {
+    [OrderStatus.PENDING]: [OrderStatus.CONFIRMED, OrderStatus.CANCELLED],
+    [OrderStatus.CONFIRMED]: [OrderStatus.SHIPPING, OrderStatus.CANCELLED],
+    [OrderStatus.SHIPPING]: [OrderStatus.DELIVERED],
+    [OrderStatus.DELIVERED]: [],
+    [OrderStatus.CANCELLED]: []
+};
+
+export interface OrderStatusOutcome {
+    orderId: number;
+    outcome: 'UPDATED' | 'UNCHANGED' | 'NOT_FOUND' | 'INVALID_TRANSITION' | 'CONFLICT';
+    previousStatus?: OrderStatus;
+}
+
+export interface OrderStatusUpdateResult {
+    status: OrderStatus;
+    updated: number;
+    outcomes: OrderStatusOutcome[];
+}
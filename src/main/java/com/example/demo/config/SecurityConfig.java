@@ -38,8 +38,10 @@ public class SecurityConfig {
             .csrf()
             .disable()
             .authorizeHttpRequests()
+            .requestMatchers("/api/orders/mine", "/api/inventory/**").authenticated()
             .requestMatchers(
                 "/images/**",
+                "/error",
                 "/api/auth/**",
                 "/api/products/**",
                 "/api/categories/**",
@@ -77,7 +79,7 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Idempotency-Key"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
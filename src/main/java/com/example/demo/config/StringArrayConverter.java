@@ -2,41 +2,204 @@ package com.example.demo.config;
 
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Arrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Stores a String[] as a JSON array of strings, e.g. {@code ["/images/a.jpg","/images/b.jpg"]}.
+ *
+ * Hand-written for this one shape instead of going through ObjectMapper: encoding sizes the
+ * buffer up front and decoding substrings the column value directly, only falling back to
+ * unescaping when an element actually contains a backslash. Reads anything the previous
+ * Jackson-based converter wrote.
+ */
 @Converter
 public class StringArrayConverter implements AttributeConverter<String[], String> {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final Logger log = LoggerFactory.getLogger(StringArrayConverter.class);
+    private static final String[] EMPTY = new String[0];
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final int MAX_LOGGED_LENGTH = 120;
 
     @Override
     public String convertToDatabaseColumn(String[] attribute) {
-        try {
-            if (attribute == null || attribute.length == 0) {
-                return "[]";
-            }
-            return objectMapper.writeValueAsString(attribute);
-        } catch (Exception e) {
-            log.error("Error converting String array to JSON", e);
+        if (attribute == null || attribute.length == 0) {
             return "[]";
         }
+        int capacity = 1 + attribute.length * 3;
+        for (String value : attribute) {
+            capacity += value == null ? 4 : value.length();
+        }
+        StringBuilder json = new StringBuilder(capacity);
+        json.append('[');
+        for (int i = 0; i < attribute.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String value = attribute[i];
+            if (value == null) {
+                json.append("null");
+            } else {
+                json.append('"');
+                appendEscaped(json, value);
+                json.append('"');
+            }
+        }
+        return json.append(']').toString();
     }
 
     @Override
     public String[] convertToEntityAttribute(String dbData) {
+        if (dbData == null) {
+            return EMPTY;
+        }
         try {
-            if (dbData == null || dbData.trim().isEmpty()) {
-                return new String[0];
+            return decode(dbData);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed string array column ({}): {}", e.getMessage(), abbreviate(dbData));
+            return EMPTY;
+        }
+    }
+
+    private static void appendEscaped(StringBuilder json, String value) {
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20) {
+                continue;
+            }
+            json.append(value, start, i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                case '\b' -> json.append("\\b");
+                case '\f' -> json.append("\\f");
+                default -> json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            }
+            start = i + 1;
+        }
+        json.append(value, start, length);
+    }
+
+    private static String[] decode(String json) {
+        int length = json.length();
+        int pos = skipWhitespace(json, 0);
+        if (pos == length) {
+            return EMPTY;
+        }
+        if (json.charAt(pos) != '[') {
+            throw new IllegalArgumentException("expected '[' at " + pos);
+        }
+        pos = skipWhitespace(json, pos + 1);
+        if (pos < length && json.charAt(pos) == ']') {
+            return trailing(json, pos + 1, EMPTY);
+        }
+
+        // Image URLs practically never need escaping, so usually each element is one indexOf
+        boolean anyEscapes = json.indexOf('\\', pos) >= 0;
+        String[] values = new String[4];
+        int count = 0;
+        while (true) {
+            if (pos >= length) {
+                throw new IllegalArgumentException("unterminated array");
             }
-            String[] result = objectMapper.readValue(dbData, String[].class);
-            return result;
-        } catch (Exception e) {
-            log.error("Error converting JSON to String array: " + dbData, e);
-            return new String[0];
+            String value;
+            char c = json.charAt(pos);
+            if (c == '"') {
+                int end;
+                boolean escaped = false;
+                if (!anyEscapes) {
+                    end = json.indexOf('"', pos + 1);
+                    end = end < 0 ? length : end;
+                } else {
+                    end = pos + 1;
+                    while (end < length && json.charAt(end) != '"') {
+                        if (json.charAt(end) == '\\') {
+                            escaped = true;
+                            end++;
+                        }
+                        end++;
+                    }
+                }
+                if (end >= length) {
+                    throw new IllegalArgumentException("unterminated string at " + pos);
+                }
+                value = escaped ? unescape(json, pos + 1, end) : json.substring(pos + 1, end);
+                pos = end + 1;
+            } else if (json.startsWith("null", pos)) {
+                value = null;
+                pos += 4;
+            } else {
+                throw new IllegalArgumentException("expected a string at " + pos);
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+
+            pos = skipWhitespace(json, pos);
+            if (pos >= length) {
+                throw new IllegalArgumentException("unterminated array");
+            }
+            c = json.charAt(pos);
+            if (c == ']') {
+                return trailing(json, pos + 1, count == values.length ? values : Arrays.copyOf(values, count));
+            }
+            if (c != ',') {
+                throw new IllegalArgumentException("expected ',' or ']' at " + pos);
+            }
+            pos = skipWhitespace(json, pos + 1);
         }
     }
-}
\ No newline at end of file
+
+    private static String unescape(String json, int start, int end) {
+        StringBuilder value = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = json.charAt(i);
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            char escape = json.charAt(++i);
+            switch (escape) {
+                case '"', '\\', '/' -> value.append(escape);
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'u' -> {
+                    if (i + 4 >= end) {
+                        throw new IllegalArgumentException("truncated unicode escape at " + i);
+                    }
+                    value.append((char) Integer.parseInt(json, i + 1, i + 5, 16));
+                    i += 4;
+                }
+                default -> throw new IllegalArgumentException("invalid escape '\\" + escape + "' at " + i);
+            }
+        }
+        return value.toString();
+    }
+
+    private static String[] trailing(String json, int pos, String[] values) {
+        if (skipWhitespace(json, pos) != json.length()) {
+            throw new IllegalArgumentException("unexpected content after array at " + pos);
+        }
+        return values;
+    }
+
+    private static int skipWhitespace(String json, int pos) {
+        while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static String abbreviate(String value) {
+        return value.length() <= MAX_LOGGED_LENGTH ? value : value.substring(0, MAX_LOGGED_LENGTH) + "...";
+    }
+}
@@ -1,10 +1,19 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CacheStatsDto;
 import com.example.demo.dto.DashboardStatsDto;
 import com.example.demo.dto.OrderDto;
+import com.example.demo.dto.OrderStatusUpdateDto;
+import com.example.demo.dto.OrderStatusUpdateResultDto;
 import com.example.demo.dto.UserResponse;
+import com.example.demo.model.Order;
 import com.example.demo.service.AdminService;
 import com.example.demo.service.OrderService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -30,6 +39,11 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getDashboardStats());
     }
 
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        return ResponseEntity.ok(adminService.getCacheStats());
+    }
+
     @GetMapping("/users")
     public ResponseEntity<List<UserResponse>> getAllUsers() {
         return ResponseEntity.ok(adminService.getAllUsers());
@@ -44,8 +58,10 @@ public class AdminController {
     }
 
     @GetMapping("/orders")
-    public ResponseEntity<List<OrderDto>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<Page<OrderDto>> getOrders(
+            @RequestParam(required = false) Order.OrderStatus status,
+            @PageableDefault(size = 20, sort = {"orderDate", "id"}, direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(orderService.getOrders(status, pageable));
     }
 
     @PutMapping("/orders/{orderId}/status")
@@ -55,4 +71,13 @@ public class AdminController {
         String status = body.get("status").toUpperCase();
         return ResponseEntity.ok(orderService.updateOrderStatus(orderId, status));
     }
+
+    /**
+     * Moves many orders to one status, reporting what happened to each of them.
+     */
+    @PutMapping("/orders/status")
+    public ResponseEntity<OrderStatusUpdateResultDto> updateOrderStatuses(
+            @Valid @RequestBody OrderStatusUpdateDto body) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(body.getOrderIds(), body.getStatus()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.FlashSaleDto;
+import com.example.demo.service.InventoryReservationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/flash-sales")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminFlashSaleController {
+
+    private final InventoryReservationService inventoryReservationService;
+
+    public AdminFlashSaleController(InventoryReservationService inventoryReservationService) {
+        this.inventoryReservationService = inventoryReservationService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<FlashSaleDto>> getFlashSales() {
+        return ResponseEntity.ok(inventoryReservationService.getFlashSales());
+    }
+
+    @PutMapping("/{productId}")
+    public ResponseEntity<FlashSaleDto> activate(@PathVariable Long productId) {
+        return ResponseEntity.ok(inventoryReservationService.activate(productId));
+    }
+
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<Void> deactivate(@PathVariable Long productId) {
+        inventoryReservationService.deactivate(productId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.CategoryDto;
+import com.example.demo.dto.EntityVersionDto;
 import com.example.demo.service.CategoryService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,15 +28,23 @@ public class CategoryController {
     }
 
     @GetMapping("{id}")
-    public ResponseEntity<CategoryDto> getCategory(@PathVariable("id") Long categoryId){
+    public ResponseEntity<CategoryDto> getCategory(@PathVariable("id") Long categoryId, WebRequest request){
+        EntityVersionDto version = categoryService.getCategoryVersion(categoryId);
+        if (ConditionalResponses.notModified(request, version, false)) {
+            return null;
+        }
         CategoryDto categoryDto = categoryService.getCategoryById(categoryId);
-        return ResponseEntity.ok(categoryDto);
+        return ConditionalResponses.ok(categoryDto, version, false);
     }
 
     @GetMapping
-    public ResponseEntity<List<CategoryDto>> getAllCategories(){
+    public ResponseEntity<List<CategoryDto>> getAllCategories(WebRequest request){
+        EntityVersionDto version = categoryService.getCategoriesVersion();
+        if (ConditionalResponses.notModified(request, version, true)) {
+            return null;
+        }
         List<CategoryDto> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+        return ConditionalResponses.ok(categories, version, true);
     }
 
     @PutMapping("{id}")
@@ -0,0 +1,83 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.EntityVersionDto;
+import com.example.demo.dto.ProductDto;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * Conditional GET support for the catalogue endpoints. Controllers resolve the version before
+ * building the body, so a matching If-None-Match / If-Modified-Since is answered with 304
+ * without loading or serializing anything.
+ *
+ * Single resources get a strong ETag from their version column plus Last-Modified. Collections
+ * get a weak ETag only: their timestamp would not move when an entry is deleted. Lists served from
+ * the in-memory catalogue use its version; pages read from the database are validated by their
+ * content instead, since that version is kept per node.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * Returns true, with the 304 status already set, when the client's copy is current.
+     */
+    static boolean notModified(WebRequest request, EntityVersionDto version, boolean collection) {
+        if (version == null || version.getVersion() == null) {
+            return false;
+        }
+        return request.checkNotModified(etag(version, collection), lastModified(version, collection));
+    }
+
+    static <T> ResponseEntity<T> ok(T body, EntityVersionDto version, boolean collection) {
+        if (version == null || version.getVersion() == null) {
+            return ResponseEntity.ok(body);
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag(version, collection))
+                // Cached but revalidated on each use; also stops Spring Security from sending no-store
+                .cacheControl(CacheControl.noCache());
+        long lastModified = lastModified(version, collection);
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * Version of a page read from the database, hashed from its entries' ids and versions plus
+     * what the page says about the rest of the list, so every node derives the same value.
+     */
+    static EntityVersionDto pageVersion(List<ProductDto> products, long... extra) {
+        long hash = 17;
+        for (ProductDto product : products) {
+            hash = 31 * hash + (product.getId() != null ? product.getId() : 0);
+            hash = 31 * hash + (product.getVersion() != null ? product.getVersion() : 0);
+        }
+        for (long value : extra) {
+            hash = 31 * hash + value;
+        }
+        return new EntityVersionDto(hash, null);
+    }
+
+    private static String etag(EntityVersionDto version, boolean collection) {
+        return (collection ? "W/\"" : "\"") + version.getVersion() + "\"";
+    }
+
+    private static long lastModified(EntityVersionDto version, boolean collection) {
+        if (collection || version.getUpdatedAt() == null) {
+            return -1;
+        }
+        return version.getUpdatedAt().toEpochMilli();
+    }
+}
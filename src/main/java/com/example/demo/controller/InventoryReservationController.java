@@ -0,0 +1,36 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ReservationDto;
+import com.example.demo.dto.ReservationRequestDto;
+import com.example.demo.service.InventoryReservationService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/inventory/reservations")
+@CrossOrigin(origins = "http://localhost:3000")
+public class InventoryReservationController {
+
+    private final InventoryReservationService inventoryReservationService;
+
+    public InventoryReservationController(InventoryReservationService inventoryReservationService) {
+        this.inventoryReservationService = inventoryReservationService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReservationDto> reserve(Authentication authentication,
+                                                  @Valid @RequestBody ReservationRequestDto request) {
+        ReservationDto reservation = inventoryReservationService.reserve(request.getProductId(), request.getQuantity(),
+                authentication.getName());
+        return new ResponseEntity<>(reservation, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> release(Authentication authentication, @PathVariable String id) {
+        inventoryReservationService.release(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
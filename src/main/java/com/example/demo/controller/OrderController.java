@@ -1,12 +1,22 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CursorPageDto;
 import com.example.demo.dto.OrderDto;
+import com.example.demo.dto.OrderIntakeDto;
+import com.example.demo.dto.OrderSummaryDto;
+import com.example.demo.service.OrderIdempotencyService;
+import com.example.demo.service.OrderIntakeQueue;
 import com.example.demo.service.OrderService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -16,19 +26,75 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderIntakeQueue orderIntakeQueue;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    /**
+     * Places the order, or with asynchronous intake enabled queues it and answers 202 with a
+     * handle to poll (429 when the queue is full). Retries carrying the same Idempotency-Key get
+     * the original order or handle back.
+     */
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@RequestBody OrderDto orderDto) {
-        return ResponseEntity.ok(orderService.createOrder(orderDto));
+    public ResponseEntity<?> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody OrderDto orderDto) {
+        if (orderIntakeQueue.isEnabled()) {
+            OrderIntakeDto intake = idempotencyKey == null
+                    ? orderIntakeQueue.submit(orderDto)
+                    : orderIdempotencyService.submit(idempotencyKey, orderDto, orderIntakeQueue::submit);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                            .path("/{handle}")
+                            .buildAndExpand(intake.getHandle())
+                            .toUri())
+                    .body(intake);
+        }
+        OrderDto order = idempotencyKey == null
+                ? orderService.createOrder(orderDto)
+                : orderIdempotencyService.createOrder(idempotencyKey, orderDto);
+        return ResponseEntity.ok(order);
     }
 
-    @GetMapping("/{id}")
+    @GetMapping("/{id:\\d+}")
     public ResponseEntity<OrderDto> getOrder(@PathVariable Long id) {
         return ResponseEntity.ok(orderService.getOrderById(id));
     }
 
+    @GetMapping("/{handle:[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}}")
+    public ResponseEntity<OrderIntakeDto> getQueuedOrder(@PathVariable String handle) {
+        return ResponseEntity.ok(orderIntakeQueue.getStatus(handle));
+    }
+
+    /**
+     * One page of orders, newest first; at most 100 per page.
+     */
     @GetMapping
-    public ResponseEntity<List<OrderDto>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<Page<OrderDto>> getAllOrders(
+            @PageableDefault(size = 20, sort = {"orderDate", "id"}, direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(orderService.getOrders(null, pageable));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<OrderDto>> scrollOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "desc") String sortDirection) {
+        return ResponseEntity.ok(orderService.scrollOrders(cursor, size, sortDirection));
+    }
+
+    /**
+     * Order history of the signed-in customer, newest first: orders placed with the account's email.
+     */
+    @GetMapping("/mine")
+    public ResponseEntity<CursorPageDto<OrderSummaryDto>> getMyOrders(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeItems) {
+        return ResponseEntity.ok(orderService.getCustomerOrders(authentication.getName(), cursor, size, includeItems));
     }
 
     @PutMapping("/{id}/status")
@@ -1,6 +1,12 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CursorPageDto;
+import com.example.demo.dto.EntityVersionDto;
+import com.example.demo.dto.ProductBatchDto;
+import com.example.demo.dto.ProductBatchRequestDto;
 import com.example.demo.dto.ProductDto;
+import com.example.demo.dto.ProductFacetsDto;
+import com.example.demo.dto.SuggestionDto;
 import com.example.demo.service.ProductService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -12,6 +18,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
@@ -30,14 +39,69 @@ public class ProductController {
     }
 
     @GetMapping("{id}")
-    public ResponseEntity<ProductDto> getProduct(@PathVariable("id") Long productId){
+    public ResponseEntity<ProductDto> getProduct(@PathVariable("id") Long productId, WebRequest request){
+        if (ConditionalResponses.isConditional(request)
+                && ConditionalResponses.notModified(request, productService.getProductVersion(productId), false)) {
+            return null;
+        }
         ProductDto productDto = productService.getProductById(productId);
-        return ResponseEntity.ok(productDto);
+        return ConditionalResponses.ok(productDto,
+                new EntityVersionDto(productDto.getVersion(), productDto.getUpdatedAt()), false);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatchDto> getProductsByIds(@Valid @RequestBody ProductBatchRequestDto request){
+        return ResponseEntity.ok(productService.getProductsByIds(request.getIds()));
     }
 
     @GetMapping
-    public ResponseEntity<Page<ProductDto>> getAllProducts(Pageable pageable){
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
+    public ResponseEntity<Page<ProductDto>> getAllProducts(Pageable pageable, WebRequest request){
+        Page<ProductDto> products = productService.getAllProducts(pageable);
+        EntityVersionDto version = ConditionalResponses.pageVersion(products.getContent(), products.getTotalElements());
+        if (ConditionalResponses.notModified(request, version, true)) {
+            return null;
+        }
+        return ConditionalResponses.ok(products, version, true);
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<ProductDto>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String categoryId,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String color,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            WebRequest request
+    ) {
+        CursorPageDto<ProductDto> products = productService.scrollProducts(
+                cursor, size, sortBy, sortDirection, name, categoryId, brand, color, minPrice, maxPrice);
+        EntityVersionDto version = ConditionalResponses.pageVersion(products.getContent(), products.isHasNext() ? 1 : 0);
+        if (ConditionalResponses.notModified(request, version, true)) {
+            return null;
+        }
+        return ConditionalResponses.ok(products, version, true);
+    }
+
+    @GetMapping("/bestsellers")
+    public ResponseEntity<List<ProductDto>> getBestsellers(@RequestParam(required = false) Long categoryId,
+                                                           @RequestParam(defaultValue = "10") int limit,
+                                                           WebRequest request){
+        EntityVersionDto version = catalogVersion();
+        if (ConditionalResponses.notModified(request, version, true)) {
+            return null;
+        }
+        return ConditionalResponses.ok(productService.getBestsellers(categoryId, limit), version, true);
+    }
+
+    @GetMapping("{id}/related")
+    public ResponseEntity<List<ProductDto>> getRelatedProducts(@PathVariable("id") Long productId,
+                                                               @RequestParam(defaultValue = "10") int limit){
+        return ResponseEntity.ok(productService.getRelatedProducts(productId, limit));
     }
 
     @PutMapping("{id}")
@@ -64,8 +128,13 @@ public class ProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            WebRequest request
     ) {
+        EntityVersionDto version = catalogVersion();
+        if (ConditionalResponses.notModified(request, version, true)) {
+            return null;
+        }
         logger.info("Filtering products with criteria: name={}, categoryId={}, brand={}, color={}, minPrice={}, maxPrice={}, page={}, size={}, sortBy={}, sortDirection={}",
                 name, categoryId, brand, color, minPrice, maxPrice, page, size, sortBy, sortDirection);
 
@@ -83,6 +152,52 @@ public class ProductController {
         );
 
         logger.info("Found {} products matching criteria", products.getTotalElements());
-        return ResponseEntity.ok(products);
+        return ConditionalResponses.ok(products, version, true);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsDto> getProductFacets(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String categoryId,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String color,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            WebRequest request
+    ) {
+        EntityVersionDto version = catalogVersion();
+        if (ConditionalResponses.notModified(request, version, true)) {
+            return null;
+        }
+        return ConditionalResponses.ok(
+                productService.getProductFacets(name, categoryId, brand, color, minPrice, maxPrice), version, true);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<ProductDto>> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request
+    ) {
+        EntityVersionDto version = catalogVersion();
+        if (ConditionalResponses.notModified(request, version, true)) {
+            return null;
+        }
+        return ConditionalResponses.ok(productService.searchProducts(query, PageRequest.of(page, size)), version, true);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggestProducts(
+            @RequestParam("q") String prefix,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(productService.suggestProducts(prefix, limit));
+    }
+
+    // List responses are validated against the in-memory catalogue as a whole; null until it is loaded
+    private EntityVersionDto catalogVersion() {
+        Long version = productService.getCatalogVersion();
+        return version == null ? null : new EntityVersionDto(version, null);
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSaleDto {
+    private Long productId;
+    private String productName;
+    // Units neither reserved nor ordered
+    private int available;
+    // Units held by reservations that have not been ordered or expired yet
+    private int reserved;
+}
@@ -1,6 +1,8 @@
 package com.example.demo.dto;
 
 import com.example.demo.model.Order;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,6 +23,12 @@ public class OrderDto {
     private String shippingAddress;
     private LocalDateTime orderDate;
     private Order.OrderStatus status;
-    private List<OrderItemDto> orderItems;
+
+    @NotEmpty(message = "Order must contain at least one item")
+    private List<@Valid OrderItemDto> orderItems;
+
     private Double totalAmount;
+
+    // Flash-sale reservations to fill the order from; optional
+    private List<String> reservationIds;
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Where an order submitted to the asynchronous intake stands. Polled at GET /api/orders/{handle}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeDto {
+    private String handle;
+    private Status status;
+    private Instant submittedAt;
+    // Set once COMPLETED
+    private Long orderId;
+    private OrderDto order;
+    // Set once REJECTED: the HTTP status the synchronous endpoint would have answered with, and why
+    private Integer errorStatus;
+    private String error;
+
+    public enum Status {
+        QUEUED,
+        COMPLETED,
+        REJECTED
+    }
+}
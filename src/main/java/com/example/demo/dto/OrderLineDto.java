@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One order line with the product columns an order listing shows, read in a single query for a
+ * whole page of orders.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineDto {
+    private Long orderId;
+    private Long id;
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+    private Double price;
+    private String[] productImages;
+}
@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What a bulk status update did to one order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusOutcomeDto {
+    private Long orderId;
+    private Outcome outcome;
+    // The status the order was found in; null when NOT_FOUND
+    private Order.OrderStatus previousStatus;
+
+    public enum Outcome {
+        UPDATED,
+        // Already in the requested status
+        UNCHANGED,
+        NOT_FOUND,
+        // The state machine does not allow moving from previousStatus to the requested status
+        INVALID_TRANSITION,
+        // Changed by someone else between reading and updating it
+        CONFLICT
+    }
+}
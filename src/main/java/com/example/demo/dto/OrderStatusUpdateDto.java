@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Order;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Moves many orders to one status at PUT /api/admin/orders/status.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusUpdateDto {
+    @NotEmpty(message = "At least one order id is required")
+    @Size(max = 5000, message = "At most 5000 orders can be updated at once")
+    private List<@NotNull Long> orderIds;
+
+    @NotNull(message = "Status is required")
+    private Order.OrderStatus status;
+}
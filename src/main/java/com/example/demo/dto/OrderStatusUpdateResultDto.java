@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusUpdateResultDto {
+    private Order.OrderStatus status;
+    private int updated;
+    private List<OrderStatusOutcomeDto> outcomes; // In the order the ids were sent, without duplicates
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDto {
+    private Long id;
+    private LocalDateTime orderDate;
+    private Order.OrderStatus status;
+    private Double totalAmount;
+    private List<OrderItemDto> orderItems; // Only filled in when asked for with includeItems
+}
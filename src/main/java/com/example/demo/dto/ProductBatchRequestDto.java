@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchRequestDto {
+
+    @NotEmpty(message = "Product IDs cannot be empty")
+    @Size(max = 1000, message = "At most 1000 product IDs per request")
+    private List<@NotNull(message = "Product ID cannot be null") Long> ids;
+
+}
@@ -9,6 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.web.multipart.MultipartFile;
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Data
 @Builder
@@ -42,5 +43,30 @@ public class ProductDto {
     
     private String[] imageUrls;
 
+    private String[] thumbnailUrls;
+
     private int sold;
+
+    private Long version;
+
+    private Instant updatedAt;
+
+    // Used by the JPQL constructor projection in ProductRepositoryCustomImpl
+    public ProductDto(Long id, String name, String description, BigDecimal price, String brand, String color,
+                      Long categoryId, Integer stock, String[] imageUrls, String[] thumbnailUrls, Integer sold,
+                      Long version, Instant updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.brand = brand;
+        this.color = color;
+        this.categoryId = categoryId;
+        this.stock = stock;
+        this.imageUrls = imageUrls;
+        this.thumbnailUrls = thumbnailUrls;
+        this.sold = sold;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsDto {
+    private long total;
+    private Map<String, Long> brands;
+    private Map<String, Long> colors;
+    private Map<Long, Long> categories;
+    private List<PriceBucketDto> priceBuckets;
+}
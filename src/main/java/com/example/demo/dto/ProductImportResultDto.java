@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResultDto {
+    private long processed;
+    private long imported;
+    private long failed;
+    private List<ProductImportErrorDto> errors;
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,28 @@
+package com.example.demo.exception;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.io.IOException;
+
+/**
+ * A save of an entity that someone else changed since it was read (its version moved on, for
+ * instance because an order took stock meanwhile) answers 409 so the client can reload and retry.
+ */
+@RestControllerAdvice
+public class ConcurrentUpdateExceptionHandler {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentUpdateExceptionHandler.class);
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public void handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException e,
+                                               HttpServletResponse response) throws IOException {
+        logger.debug("Concurrent update of {} {}", e.getPersistentClassName(), e.getIdentifier());
+        // Through the error page, so the body looks like every other error
+        response.sendError(HttpStatus.CONFLICT.value(), "The resource was changed by someone else, reload it and try again");
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class ReservationLimitExceededException extends RuntimeException {
+
+    public ReservationLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -15,7 +15,11 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_date_id", columnList = "order_date, id"),
+        // Order history of one customer, newest first
+        @Index(name = "idx_orders_customer_email_order_date_id", columnList = "customer_email, order_date DESC, id DESC")
+})
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -52,6 +56,18 @@ public class Order {
         CONFIRMED,
         SHIPPING,
         DELIVERED,
-        CANCELLED
+        CANCELLED;
+
+        /**
+         * Orders move forward one step at a time and can be cancelled until they ship.
+         */
+        public boolean canTransitionTo(OrderStatus next) {
+            return switch (this) {
+                case PENDING -> next == CONFIRMED || next == CANCELLED;
+                case CONFIRMED -> next == SHIPPING || next == CANCELLED;
+                case SHIPPING -> next == DELIVERED;
+                case DELIVERED, CANCELLED -> false;
+            };
+        }
     }
 }
\ No newline at end of file
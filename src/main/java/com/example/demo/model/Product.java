@@ -9,15 +9,21 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import com.example.demo.config.StringArrayConverter;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_sold_id", columnList = "sold, id")
+})
 public class Product {
 
     @Id
@@ -53,8 +59,21 @@ public class Product {
     @Convert(converter = StringArrayConverter.class)
     private String[] images;
 
+    // Small variants of images, same order; equal to images until the resized files are ready
+    @Convert(converter = StringArrayConverter.class)
+    private String[] thumbnails;
+
     @NotNull(message = "Product must have sold")
     @PositiveOrZero(message = "Sold must be positive or zero")
-    @Column(nullable = false)
+    // Only changed in SQL by ProductSalesRecorder; entity saves must not write back a stale count
+    @Column(nullable = false, updatable = false)
     private int sold;
+
+    // Bumped on every change, including the SQL updates in ProductSalesRecorder; used as the ETag
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
 }
\ No newline at end of file
@@ -1,9 +1,39 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.OrderLineDto;
 import com.example.demo.model.OrderItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    /**
+     * (order id, product id) of every line of the orders up to {@code maxOrderId}, grouped by order.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT oi.order.id, oi.product.id FROM OrderItem oi WHERE oi.order.id <= :maxOrderId ORDER BY oi.order.id")
+    Stream<Object[]> streamOrderProductPairs(@Param("maxOrderId") Long maxOrderId);
+
+    @Query("SELECT new com.example.demo.dto.OrderLineDto(oi.order.id, oi.id, p.id, p.name, oi.quantity, oi.price, p.images) "
+            + "FROM OrderItem oi JOIN oi.product p WHERE oi.order.id IN :orderIds ORDER BY oi.order.id, oi.id")
+    List<OrderLineDto> findLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * (product id, units) ordered over all the given orders.
+     */
+    @Query("SELECT oi.product.id, SUM(oi.quantity) FROM OrderItem oi WHERE oi.order.id IN :orderIds GROUP BY oi.product.id")
+    List<Object[]> sumQuantitiesByProductId(@Param("orderIds") Collection<Long> orderIds);
 }
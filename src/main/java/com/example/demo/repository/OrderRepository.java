@@ -2,12 +2,35 @@ package com.example.demo.repository;
 
 import com.example.demo.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
     @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.status = :status")
     Double sumTotalAmountByStatus(@Param("status") Order.OrderStatus status);
+
+    @Query("SELECT MAX(o.id) FROM Order o")
+    Long findMaxId();
+
+    /**
+     * (id, status) of each of the given orders that exists.
+     */
+    @Query("SELECT o.id, o.status FROM Order o WHERE o.id IN :ids")
+    List<Object[]> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves the given orders from {@code from} to {@code to}; orders no longer in {@code from} are left alone.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id IN :ids AND o.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("from") Order.OrderStatus from,
+                     @Param("to") Order.OrderStatus to);
 }
\ No newline at end of file
@@ -1,12 +1,27 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.EntityVersionDto;
 import com.example.demo.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
     // JpaSpecificationExecutor allows for dynamic query creation based on criteria
     // We will use this for filtering products
+
+    @Query("SELECT new com.example.demo.dto.EntityVersionDto(p.version, p.updatedAt) FROM Product p WHERE p.id = :id")
+    Optional<EntityVersionDto> findVersionById(@Param("id") Long id);
+
+    /**
+     * (id, version) of every product.
+     */
+    @Query("SELECT p.id, p.version FROM Product p")
+    List<Object[]> findAllVersions();
 }
@@ -0,0 +1,24 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ProductDto;
+import com.example.demo.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface ProductRepositoryCustom {
+    // Read-model queries selecting only the columns ProductDto needs, without managed entities
+    Page<ProductDto> findProductDtos(Specification<Product> spec, Pageable pageable);
+    List<ProductDto> findProductDtos(Specification<Product> spec, Sort sort);
+    // Forward-only cursor over the whole catalog in id order; must be consumed and closed inside a transaction
+    Stream<ProductDto> streamProductDtos(int fetchSize);
+    // Takes the quantities off stock only where enough is left, as one JDBC batch in id order; returns the ids that were short
+    List<Long> decrementStock(Map<Long, Integer> quantitiesByProductId);
+    // Puts the quantities back on stock, as one JDBC batch in id order
+    void incrementStock(Map<Long, Integer> quantitiesByProductId);
+}
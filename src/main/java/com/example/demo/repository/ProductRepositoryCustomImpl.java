@@ -0,0 +1,140 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ProductDto;
+import com.example.demo.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+    // Also bumps the version, so a concurrent entity save of the old stock fails instead of overwriting it.
+    // Flash-sale deductions not yet written behind to products.stock count as taken.
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock = stock - ?, version = version + 1, updated_at = ? WHERE id = ? AND stock - "
+                    + "(SELECT COALESCE(SUM(d.quantity), 0) FROM stock_deductions d WHERE d.product_id = products.id) >= ?";
+    private static final String INCREMENT_STOCK_SQL =
+            "UPDATE products SET stock = stock + ?, version = version + 1, updated_at = ? WHERE id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Page<ProductDto> findProductDtos(Specification<Product> spec, Pageable pageable) {
+        TypedQuery<ProductDto> query = entityManager.createQuery(selectProductDtos(spec, pageable.getSort()));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        // The COUNT query only runs when the page size does not already tell us the total
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<ProductDto> findProductDtos(Specification<Product> spec, Sort sort) {
+        return entityManager.createQuery(selectProductDtos(spec, sort)).getResultList();
+    }
+
+    @Override
+    public Stream<ProductDto> streamProductDtos(int fetchSize) {
+        return entityManager.createQuery(selectProductDtos(null, Sort.by("id")))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<Long> decrementStock(Map<Long, Integer> quantitiesByProductId) {
+        // Ascending ids so concurrent orders lock product rows in the same order
+        Map<Long, Integer> ordered = new TreeMap<>(quantitiesByProductId);
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> batch = new ArrayList<>(ordered.size());
+        ordered.forEach((productId, quantity) -> batch.add(new Object[]{quantity, now, productId, quantity}));
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, batch);
+
+        List<Long> insufficient = new ArrayList<>();
+        int i = 0;
+        for (Long productId : ordered.keySet()) {
+            if (updated[i++] == 0) {
+                insufficient.add(productId);
+            }
+        }
+        return insufficient;
+    }
+
+    @Override
+    public void incrementStock(Map<Long, Integer> quantitiesByProductId) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> batch = new ArrayList<>(quantitiesByProductId.size());
+        new TreeMap<>(quantitiesByProductId).forEach((productId, quantity) -> batch.add(new Object[]{quantity, now, productId}));
+        jdbcTemplate.batchUpdate(INCREMENT_STOCK_SQL, batch);
+    }
+
+    private CriteriaQuery<ProductDto> selectProductDtos(Specification<Product> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductDto> query = criteriaBuilder.createQuery(ProductDto.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(criteriaBuilder.construct(ProductDto.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("description"),
+                root.get("price"),
+                root.get("brand"),
+                root.get("color"),
+                root.get("category").get("id"),
+                root.get("stock"),
+                root.get("images"),
+                root.get("thumbnails"),
+                root.get("sold"),
+                root.get("version"),
+                root.get("updatedAt")));
+        applySpecification(spec, root, query, criteriaBuilder);
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+        return query;
+    }
+
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(criteriaBuilder.count(root));
+        applySpecification(spec, root, query, criteriaBuilder);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void applySpecification(Specification<Product> spec, Root<Product> root,
+                                           CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
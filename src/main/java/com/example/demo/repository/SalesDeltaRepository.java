@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.SalesDelta;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SalesDeltaRepository extends JpaRepository<SalesDelta, Long> {
+    List<SalesDelta> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StockDeduction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockDeductionRepository extends JpaRepository<StockDeduction, Long> {
+    List<StockDeduction> findAllByOrderByIdAsc(Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(d.quantity), 0) FROM StockDeduction d WHERE d.productId = :productId")
+    long sumQuantityByProductId(@Param("productId") Long productId);
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CacheStatsDto;
 import com.example.demo.dto.DashboardStatsDto;
 import com.example.demo.dto.UserResponse;
 import com.example.demo.exception.ResourceNotFoundException;
@@ -26,6 +27,12 @@ public class AdminService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductDetailCache productDetailCache;
+
+    @Autowired
+    private ImageFileResolver imageFileResolver;
+
     public DashboardStatsDto getDashboardStats() {
         long totalUsers = userRepository.count();
         long totalOrders = orderRepository.count();
@@ -53,4 +60,8 @@ public class AdminService {
         userRepository.save(user);
         return UserResponse.from(user);
     }
+
+    public List<CacheStatsDto> getCacheStats() {
+        return List.of(productDetailCache.stats(), imageFileResolver.stats());
+    }
 }
\ No newline at end of file
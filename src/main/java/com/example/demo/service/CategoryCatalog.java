@@ -0,0 +1,170 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CategoryDto;
+import com.example.demo.dto.EntityVersionDto;
+import com.example.demo.model.Category;
+import com.example.demo.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * All categories held in memory as an immutable snapshot, indexed by id and by name.
+ *
+ * Readers never lock or touch the database. Writes through {@link CategoryServiceImpl} swap in a
+ * new snapshot with a higher version; a periodic reload picks up changes made elsewhere and only
+ * swaps when something actually differs. Entries are shared with callers and must be treated as
+ * read-only.
+ */
+@Component
+public class CategoryCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(CategoryCatalog.class);
+
+    private final CategoryRepository categoryRepository;
+    private volatile Snapshot snapshot;
+
+    public CategoryCatalog(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    public Optional<CategoryDto> get(Long id) {
+        return Optional.ofNullable(current().byId.get(id));
+    }
+
+    /**
+     * Case-insensitive, like the default SQL Server collation the names were looked up with before.
+     */
+    public Optional<CategoryDto> findByName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(current().byName.get(nameKey(name)));
+    }
+
+    /**
+     * Returns all categories ordered by id.
+     */
+    public List<CategoryDto> all() {
+        return current().all;
+    }
+
+    public Optional<EntityVersionDto> version(Long id) {
+        return Optional.ofNullable(current().versions.get(id));
+    }
+
+    /**
+     * Returns a number that changes whenever any category changes.
+     */
+    public long version() {
+        return current().version;
+    }
+
+    public synchronized void put(Category category) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        Map<Long, Category> categories = new HashMap<>(current.categories);
+        categories.put(category.getId(), category);
+        snapshot = Snapshot.build(categories.values(), current.version + 1);
+    }
+
+    public synchronized void remove(Long id) {
+        Snapshot current = snapshot;
+        if (current == null || !current.categories.containsKey(id)) {
+            return;
+        }
+        Map<Long, Category> categories = new HashMap<>(current.categories);
+        categories.remove(id);
+        snapshot = Snapshot.build(categories.values(), current.version + 1);
+    }
+
+    @Scheduled(fixedDelayString = "${app.categories.refresh-interval:PT10M}")
+    public synchronized void reload() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        try {
+            Snapshot loaded = Snapshot.build(categoryRepository.findAll(), current.version + 1);
+            if (!loaded.versions.equals(current.versions) || !loaded.byId.equals(current.byId)) {
+                snapshot = loaded;
+                logger.info("Reloaded {} categories", loaded.all.size());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not reload the categories, keeping the current ones: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    // Writers hold the same lock, so a change committed while loading is applied on top of the result
+    private synchronized Snapshot load() {
+        if (snapshot == null) {
+            snapshot = Snapshot.build(categoryRepository.findAll(), System.currentTimeMillis());
+        }
+        return snapshot;
+    }
+
+    private static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, Category> categories;
+        private final Map<Long, CategoryDto> byId;
+        private final Map<String, CategoryDto> byName;
+        private final Map<Long, EntityVersionDto> versions;
+        private final List<CategoryDto> all;
+        private final long version;
+
+        private Snapshot(Map<Long, Category> categories, Map<Long, CategoryDto> byId, Map<String, CategoryDto> byName,
+                         Map<Long, EntityVersionDto> versions, List<CategoryDto> all, long version) {
+            this.categories = categories;
+            this.byId = byId;
+            this.byName = byName;
+            this.versions = versions;
+            this.all = all;
+            this.version = version;
+        }
+
+        static Snapshot build(Collection<Category> values, long version) {
+            Map<Long, Category> categories = new TreeMap<>();
+            for (Category category : values) {
+                // Detached copies: the entities' product collections must not be held on to
+                categories.put(category.getId(), Category.builder()
+                        .id(category.getId())
+                        .name(category.getName())
+                        .version(category.getVersion())
+                        .updatedAt(category.getUpdatedAt())
+                        .build());
+            }
+            Map<Long, CategoryDto> byId = new HashMap<>();
+            Map<String, CategoryDto> byName = new HashMap<>();
+            Map<Long, EntityVersionDto> versions = new HashMap<>();
+            List<CategoryDto> all = new ArrayList<>(categories.size());
+            for (Category category : categories.values()) {
+                CategoryDto dto = CategoryDto.builder()
+                        .id(category.getId())
+                        .name(category.getName())
+                        .build();
+                byId.put(dto.getId(), dto);
+                byName.putIfAbsent(nameKey(dto.getName()), dto);
+                versions.put(dto.getId(), new EntityVersionDto(category.getVersion(), category.getUpdatedAt()));
+                all.add(dto);
+            }
+            return new Snapshot(Map.copyOf(categories), Map.copyOf(byId), Map.copyOf(byName), Map.copyOf(versions),
+                    List.copyOf(all), version);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.CategoryDto;
+import com.example.demo.dto.EntityVersionDto;
 
 import java.util.List;
 
@@ -9,6 +10,8 @@ public interface CategoryService {
     CategoryDto getCategoryById(Long id);
     CategoryDto getCategoryByName(String name);
     List<CategoryDto> getAllCategories();
+    EntityVersionDto getCategoryVersion(Long id);
+    EntityVersionDto getCategoriesVersion();
     CategoryDto updateCategory(Long id, CategoryDto categoryDto);
     void deleteCategory(Long id);
 }
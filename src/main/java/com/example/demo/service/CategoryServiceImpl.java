@@ -1,21 +1,27 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.CategoryDto;
+import com.example.demo.dto.EntityVersionDto;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Category;
 import com.example.demo.repository.CategoryRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
+    private final ProductSuggestIndex suggestIndex;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository,
+                               CategoryCatalog categoryCatalog,
+                               ProductSuggestIndex suggestIndex) {
         this.categoryRepository = categoryRepository;
+        this.categoryCatalog = categoryCatalog;
+        this.suggestIndex = suggestIndex;
     }
 
     @Override
@@ -23,6 +29,8 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = new Category();
         category.setName(categoryDto.getName());
         Category savedCategory = categoryRepository.save(category);
+        categoryCatalog.put(savedCategory);
+        suggestIndex.putCategory(savedCategory.getId(), savedCategory.getName());
         CategoryDto savedCategoryDto = new CategoryDto();
         savedCategoryDto.setId(savedCategory.getId());
         savedCategoryDto.setName(savedCategory.getName());
@@ -31,35 +39,30 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public CategoryDto getCategoryById(Long id) {
-        Category category = categoryRepository.findById(id)
+        return categoryCatalog.get(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
-        CategoryDto categoryDto = new CategoryDto();
-        categoryDto.setId(category.getId());
-        categoryDto.setName(category.getName());
-        return categoryDto;
     }
 
     @Override
     public CategoryDto getCategoryByName(String name) {
-        Category category = categoryRepository.findByName(name)
+        return categoryCatalog.findByName(name)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "name", name));
-        CategoryDto categoryDto = new CategoryDto();
-        categoryDto.setId(category.getId());
-        categoryDto.setName(category.getName());
-        return categoryDto;
     }
 
     @Override
     public List<CategoryDto> getAllCategories() {
-        List<Category> categories = categoryRepository.findAll();
-        return categories.stream()
-                .map(category -> {
-                    CategoryDto categoryDto = new CategoryDto();
-                    categoryDto.setId(category.getId());
-                    categoryDto.setName(category.getName());
-                    return categoryDto;
-                })
-                .collect(Collectors.toList());
+        return categoryCatalog.all();
+    }
+
+    @Override
+    public EntityVersionDto getCategoryVersion(Long id) {
+        return categoryCatalog.version(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+    }
+
+    @Override
+    public EntityVersionDto getCategoriesVersion() {
+        return new EntityVersionDto(categoryCatalog.version(), null);
     }
 
     @Override
@@ -68,6 +71,8 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
         category.setName(categoryDto.getName());
         Category updatedCategory = categoryRepository.save(category);
+        categoryCatalog.put(updatedCategory);
+        suggestIndex.putCategory(updatedCategory.getId(), updatedCategory.getName());
         CategoryDto updatedCategoryDto = new CategoryDto();
         updatedCategoryDto.setId(updatedCategory.getId());
         updatedCategoryDto.setName(updatedCategory.getName());
@@ -79,5 +84,7 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
         categoryRepository.delete(category);
+        categoryCatalog.remove(id);
+        suggestIndex.removeCategory(id);
     }
 }
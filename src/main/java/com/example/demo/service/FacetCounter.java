@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PriceBucketDto;
+import com.example.demo.dto.ProductDto;
+import com.example.demo.dto.ProductFacetsDto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates brand, color, category and price bucket counts in a single pass over products.
+ */
+final class FacetCounter {
+
+    private final BigDecimal[] priceBounds;
+    private final long[] priceCounts;
+    private final Map<String, Long> brands = new HashMap<>();
+    private final Map<String, Long> colors = new HashMap<>();
+    private final Map<Long, Long> categories = new HashMap<>();
+    private long total;
+
+    /**
+     * @param priceBounds ascending lower bounds of the price buckets, the last bucket is open-ended
+     */
+    FacetCounter(BigDecimal[] priceBounds) {
+        this.priceBounds = priceBounds != null ? priceBounds : new BigDecimal[0];
+        this.priceCounts = new long[this.priceBounds.length];
+    }
+
+    void add(ProductDto product) {
+        total++;
+        if (product.getBrand() != null) {
+            brands.merge(product.getBrand(), 1L, Long::sum);
+        }
+        if (product.getColor() != null) {
+            colors.merge(product.getColor(), 1L, Long::sum);
+        }
+        if (product.getCategoryId() != null) {
+            categories.merge(product.getCategoryId(), 1L, Long::sum);
+        }
+        if (product.getPrice() != null) {
+            int bucket = bucketOf(product.getPrice());
+            if (bucket >= 0) {
+                priceCounts[bucket]++;
+            }
+        }
+    }
+
+    ProductFacetsDto result() {
+        List<PriceBucketDto> priceBuckets = new ArrayList<>(priceBounds.length);
+        for (int i = 0; i < priceBounds.length; i++) {
+            priceBuckets.add(PriceBucketDto.builder()
+                    .from(priceBounds[i])
+                    .to(i + 1 < priceBounds.length ? priceBounds[i + 1] : null)
+                    .count(priceCounts[i])
+                    .build());
+        }
+        return ProductFacetsDto.builder()
+                .total(total)
+                .brands(byCountDescending(brands))
+                .colors(byCountDescending(colors))
+                .categories(byCountDescending(categories))
+                .priceBuckets(priceBuckets)
+                .build();
+    }
+
+    private int bucketOf(BigDecimal price) {
+        int index = Arrays.binarySearch(priceBounds, price);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private static <K> Map<K, Long> byCountDescending(Map<K, Long> counts) {
+        Map<K, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<K, Long>comparingByValue().reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CacheStatsDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+
+/**
+ * Maps {@code /images/**} request paths to files on disk and caches what is needed to answer
+ * them (real path, size, modification time, ETag, content type), so a cached image is served
+ * without touching the file system until the bytes are sent.
+ *
+ * Product images live under {@code app.upload.dir}; everything else under the static images
+ * directory. Paths with no file behind them are not cached, so an image stored right after a
+ * 404 is served on the next request.
+ */
+@Component
+public class ImageFileResolver {
+    private static final String PRODUCTS_PREFIX = "products/";
+
+    private final Path productsRoot;
+    private final Path staticRoot;
+    private final Cache<String, ImageFile> cache;
+
+    public ImageFileResolver(@Value("${app.upload.dir}") String uploadDir,
+                             @Value("${app.images.static-dir:src/main/resources/static/images}") String staticDir,
+                             @Value("${app.cache.image-metadata.max-entries:10000}") long maxEntries,
+                             @Value("${app.cache.image-metadata.ttl:PT1M}") Duration ttl) {
+        this.productsRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.staticRoot = Paths.get(staticDir).toAbsolutePath().normalize();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param path request path below {@code /images/}, already URL-decoded
+     * @return the file, or {@code null} if there is no readable regular file at that path
+     */
+    public ImageFile resolve(String path) {
+        // A null load is returned without being stored
+        return cache.get(path, this::load);
+    }
+
+    public void invalidate(String path) {
+        cache.invalidate(path);
+    }
+
+    public CacheStatsDto stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsDto.builder()
+                .name("image-metadata")
+                .entries(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    private ImageFile load(String path) {
+        Path root = staticRoot;
+        String relative = path;
+        if (path.startsWith(PRODUCTS_PREFIX)) {
+            root = productsRoot;
+            relative = path.substring(PRODUCTS_PREFIX.length());
+        }
+        if (relative.isEmpty() || relative.contains("\\") || relative.contains("\0")) {
+            return null;
+        }
+        Path file = root.resolve(relative).normalize();
+        if (!file.startsWith(root)) {
+            return null;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            // HTTP dates have second precision
+            long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+            String fileName = file.getFileName().toString();
+            String hash = ProductImageStore.hashOfFileName(fileName);
+            boolean immutable = root == productsRoot && hash != null;
+            String etag = immutable
+                    ? "\"" + hash + "\""
+                    : "W/\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified) + "\"";
+            MediaType contentType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            return new ImageFile(file.toRealPath(), attributes.size(), lastModified, etag,
+                    contentType.toString(), immutable);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public static final class ImageFile {
+        private final Path path;
+        private final long length;
+        private final long lastModified;
+        private final String etag;
+        private final String contentType;
+        private final boolean immutable;
+
+        ImageFile(Path path, long length, long lastModified, String etag, String contentType, boolean immutable) {
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.etag = etag;
+            this.contentType = contentType;
+            this.immutable = immutable;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Content-addressed files never change, so they can be cached indefinitely.
+         */
+        public boolean isImmutable() {
+            return immutable;
+        }
+    }
+}
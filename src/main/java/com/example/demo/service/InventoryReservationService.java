@@ -0,0 +1,471 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FlashSaleDto;
+import com.example.demo.dto.ReservationDto;
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.exception.ReservationLimitExceededException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.FlashSale;
+import com.example.demo.model.Product;
+import com.example.demo.model.StockDeduction;
+import com.example.demo.repository.FlashSaleRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.StockDeductionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out the stock of flash-sale products from memory, so buyers contending for the same few
+ * products do not queue on their rows.
+ *
+ * Each product on flash sale has one counter of units still on sale, taken and given back with
+ * compare-and-set; nothing on this path locks or touches the database. Buyers may hold units for
+ * a limited time with a reservation, which goes back into the counter if it is not ordered. A
+ * reservation belongs to the user who made it, who may hold only a few per product at a time.
+ * Orders record what they took as {@link StockDeduction} rows in their own transaction, and a
+ * periodic flush subtracts those from products.stock in one JDBC batch. On startup the products
+ * on flash sale are reloaded, each counter starting from its stock minus the deductions not
+ * applied yet.
+ *
+ * Activate a product before its sale opens: an order that already went down the row-lock path
+ * while the counter is being loaded is not seen by it. Stock set by an admin during the sale is
+ * applied to the counter as a change from the previous stock.
+ *
+ * Counters live in this JVM, so this assumes a single API instance: several instances would each
+ * sell the whole stock. The flush logs an error for any product it drives below zero.
+ */
+@Service
+public class InventoryReservationService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryReservationService.class);
+    private static final String APPLY_DEDUCTIONS_SQL =
+            "UPDATE products SET stock = stock - ?, version = version + 1, updated_at = ? WHERE id = ?";
+    private static final String OVERSOLD_SQL = "SELECT id, stock FROM products WHERE stock < 0 AND id IN (%s)";
+    private static final int LOCK_STRIPES = 64;
+
+    private final ProductRepository productRepository;
+    private final FlashSaleRepository flashSaleRepository;
+    private final StockDeductionRepository stockDeductionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductService productService;
+    private final Duration reservationTtl;
+    private final int flushBatchSize;
+    private final int maxReservationsPerUser;
+    // Striped by owner, so one user's reservations are counted and added atomically
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final ConcurrentMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    public InventoryReservationService(ProductRepository productRepository,
+                                       FlashSaleRepository flashSaleRepository,
+                                       StockDeductionRepository stockDeductionRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       ProductService productService,
+                                       @Value("${app.inventory.reservation-ttl:PT10M}") Duration reservationTtl,
+                                       @Value("${app.inventory.flush-batch-size:1000}") int flushBatchSize,
+                                       @Value("${app.inventory.max-reservations-per-user:1}") int maxReservationsPerUser) {
+        this.productRepository = productRepository;
+        this.flashSaleRepository = flashSaleRepository;
+        this.stockDeductionRepository = stockDeductionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productService = productService;
+        this.reservationTtl = reservationTtl;
+        this.flushBatchSize = flushBatchSize;
+        this.maxReservationsPerUser = maxReservationsPerUser;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void recover() {
+        for (FlashSale flashSale : flashSaleRepository.findAll()) {
+            try {
+                load(flashSale.getProductId());
+            } catch (ResourceNotFoundException e) {
+                logger.warn("Product {} on flash sale no longer exists, ending its sale", flashSale.getProductId());
+                flashSaleRepository.deleteById(flashSale.getProductId());
+            }
+        }
+    }
+
+    /**
+     * Puts a product on flash sale. Does nothing if it already is.
+     */
+    public synchronized FlashSaleDto activate(Long productId) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            counter = load(productId);
+            flashSaleRepository.save(FlashSale.builder()
+                    .productId(productId)
+                    .activatedAt(LocalDateTime.now())
+                    .build());
+        }
+        return toDto(productId, counter);
+    }
+
+    /**
+     * Ends a flash sale: its orders go back to the row-lock path and its reservations are dropped.
+     * Deductions not flushed yet are still honoured there, as that path subtracts them too.
+     */
+    public synchronized void deactivate(Long productId) {
+        if (counters.remove(productId) == null) {
+            throw new ResourceNotFoundException("Flash sale", "productId", productId);
+        }
+        reservations.values().removeIf(reservation -> reservation.productId.equals(productId));
+        flashSaleRepository.deleteById(productId);
+    }
+
+    public List<FlashSaleDto> getFlashSales() {
+        List<FlashSaleDto> flashSales = new ArrayList<>();
+        new TreeMap<>(counters).forEach((productId, counter) -> flashSales.add(toDto(productId, counter)));
+        return flashSales;
+    }
+
+    public boolean isActive(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    /**
+     * Applies an admin's stock change to the counter of a product on flash sale, once it commits.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        Counter counter = counters.get(event.getProductId());
+        if (counter == null) {
+            return;
+        }
+        int available = counter.adjust(event.getDelta());
+        logger.info("Stock of flash-sale product {} changed by {}, {} units now on sale",
+                event.getProductId(), event.getDelta(), available);
+    }
+
+    /**
+     * Puts the units of cancelled or deleted orders back on sale, once they are back on stock.
+     */
+    @TransactionalEventListener
+    public void onStockReleased(OrderStockReleasedEvent event) {
+        event.getQuantitiesByProductId().forEach((productId, quantity) -> {
+            Counter counter = counters.get(productId);
+            if (counter != null) {
+                counter.give(quantity);
+            }
+        });
+        productService.refreshReadModels(event.getQuantitiesByProductId().keySet());
+    }
+
+    public ReservationDto reserve(Long productId, int quantity, String owner) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            throw new ResourceNotFoundException("Flash sale", "productId", productId);
+        }
+        Reservation reservation;
+        synchronized (lock(owner)) {
+            long open = reservations.values().stream()
+                    .filter(held -> held.owner.equals(owner) && held.productId.equals(productId))
+                    .count();
+            if (open >= maxReservationsPerUser) {
+                throw new ReservationLimitExceededException("At most " + maxReservationsPerUser
+                        + " reservations per product can be held at once");
+            }
+            if (!counter.take(quantity)) {
+                throw new InsufficientStockException(productId, counter.productName, quantity, counter.available.get());
+            }
+            reservation = new Reservation(UUID.randomUUID().toString(), owner, productId, counter, quantity,
+                    Instant.now().plus(reservationTtl));
+            reservations.put(reservation.id, reservation);
+        }
+        return ReservationDto.builder()
+                .id(reservation.id)
+                .productId(productId)
+                .quantity(quantity)
+                .expiresAt(reservation.expiresAt)
+                .build();
+    }
+
+    /**
+     * Gives a reservation back. Someone else's reservation is reported as not found.
+     */
+    public void release(String reservationId, String owner) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || !reservation.owner.equals(owner)
+                || !reservations.remove(reservationId, reservation)) {
+            throw new ResourceNotFoundException("Reservation", "id", reservationId);
+        }
+        reservation.counter.give(reservation.quantity);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.expiry-check-interval:PT5S}")
+    public void expireReservations() {
+        expireReservations(Instant.now());
+    }
+
+    int expireReservations(Instant now) {
+        int expired = 0;
+        for (Reservation reservation : reservations.values()) {
+            // remove(key, value) so a reservation being ordered right now is given back at most once
+            if (!reservation.expiresAt.isAfter(now) && reservations.remove(reservation.id, reservation)) {
+                reservation.counter.give(reservation.quantity);
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Takes an order's quantities of flash-sale products from memory, first from the given
+     * reservations and the rest from the counters, and returns what was taken by product id.
+     * Products not on flash sale are left to the caller. When a product is short, everything is
+     * put back, reservations included, and {@link InsufficientStockException} is thrown.
+     *
+     * Meant to run in the order's transaction: if that rolls back, the claimed reservations are
+     * held again and the units taken from the counters go back on sale. Units reserved beyond what
+     * was ordered go back on sale once it commits.
+     */
+    public Map<Long, Integer> allocate(Map<Long, Integer> quantitiesByProductId, Collection<String> reservationIds) {
+        Map<Long, Counter> active = new LinkedHashMap<>();
+        quantitiesByProductId.keySet().forEach(productId -> {
+            Counter counter = counters.get(productId);
+            if (counter != null) {
+                active.put(productId, counter);
+            }
+        });
+        if (active.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Reservation> claimed = new ArrayList<>();
+        Map<Long, Integer> held = new HashMap<>();
+        if (reservationIds != null) {
+            for (String reservationId : reservationIds) {
+                Reservation reservation = reservationId != null ? reservations.get(reservationId) : null;
+                if (reservation != null && active.get(reservation.productId) == reservation.counter
+                        && reservations.remove(reservationId, reservation)) {
+                    claimed.add(reservation);
+                    held.merge(reservation.productId, reservation.quantity, Integer::sum);
+                }
+            }
+        }
+
+        Map<Long, Integer> takenFromCounters = new HashMap<>();
+        for (Map.Entry<Long, Counter> entry : active.entrySet()) {
+            Long productId = entry.getKey();
+            Counter counter = entry.getValue();
+            int quantity = quantitiesByProductId.get(productId);
+            int shortfall = quantity - held.getOrDefault(productId, 0);
+            if (shortfall <= 0) {
+                continue;
+            }
+            if (!counter.take(shortfall)) {
+                takenFromCounters.forEach((id, taken) -> active.get(id).give(taken));
+                claimed.forEach(reservation -> reservations.put(reservation.id, reservation));
+                throw new InsufficientStockException(productId, counter.productName, quantity,
+                        quantity - shortfall + counter.available.get());
+            }
+            takenFromCounters.put(productId, shortfall);
+        }
+
+        Map<Long, Integer> allocated = new LinkedHashMap<>();
+        active.forEach((productId, counter) -> allocated.put(productId, quantitiesByProductId.get(productId)));
+        afterCompletion(
+                // Reserved more than ordered: the rest goes back on sale
+                () -> active.forEach((productId, counter) ->
+                        counter.give(held.getOrDefault(productId, 0) - allocated.get(productId))),
+                () -> {
+                    takenFromCounters.forEach((productId, taken) -> active.get(productId).give(taken));
+                    claimed.forEach(reservation -> reservations.put(reservation.id, reservation));
+                });
+        return allocated;
+    }
+
+    /**
+     * Journals what {@link #allocate} took for an order, in the order's transaction.
+     */
+    public void recordDeductions(Long orderId, Map<Long, Integer> allocated) {
+        if (allocated.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<StockDeduction> deductions = new ArrayList<>(allocated.size());
+        allocated.forEach((productId, quantity) -> deductions.add(StockDeduction.builder()
+                .productId(productId)
+                .orderId(orderId)
+                .quantity(quantity)
+                .createdAt(now)
+                .build()));
+        stockDeductionRepository.saveAll(deductions);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.flush-interval:PT1S}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<StockDeduction> deductions;
+        do {
+            deductions = stockDeductionRepository.findAllByOrderByIdAsc(PageRequest.of(0, flushBatchSize));
+            if (deductions.isEmpty()) {
+                return;
+            }
+            // Ascending ids so the flush locks product rows in the same order as the orders do
+            Map<Long, Integer> deltas = new TreeMap<>();
+            List<Long> ids = new ArrayList<>(deductions.size());
+            for (StockDeduction deduction : deductions) {
+                deltas.merge(deduction.getProductId(), deduction.getQuantity(), Integer::sum);
+                ids.add(deduction.getId());
+            }
+
+            Timestamp now = Timestamp.from(Instant.now());
+            List<Object[]> batch = new ArrayList<>(deltas.size());
+            deltas.forEach((productId, quantity) -> batch.add(new Object[]{quantity, now, productId}));
+            try {
+                // Exactly the rows read: deductions committed meanwhile wait for the next round
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(APPLY_DEDUCTIONS_SQL, batch);
+                    stockDeductionRepository.deleteAllByIdInBatch(ids);
+                    reportOversold(deltas.keySet());
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Could not apply {} stock deductions, retrying on the next flush: {}", ids.size(), e.getMessage());
+                return;
+            }
+            productService.refreshReadModels(deltas.keySet());
+        } while (deductions.size() == flushBatchSize);
+    }
+
+    // Only happens when something else sold the same units, such as a second instance
+    private void reportOversold(Collection<Long> productIds) {
+        String placeholders = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        for (Map<String, Object> row : jdbcTemplate.queryForList(String.format(OVERSOLD_SQL, placeholders), productIds.toArray())) {
+            logger.error("Flash-sale deductions drove the stock of product {} to {}", row.get("id"), row.get("stock"));
+        }
+    }
+
+    private Counter load(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        long pending = stockDeductionRepository.sumQuantityByProductId(productId);
+        Counter counter = new Counter(product.getName(), (int) Math.max(0, product.getStock() - pending));
+        counters.put(productId, counter);
+        logger.info("Flash sale of product {} started with {} units", productId, counter.available.get());
+        return counter;
+    }
+
+    private FlashSaleDto toDto(Long productId, Counter counter) {
+        int reserved = 0;
+        for (Reservation reservation : reservations.values()) {
+            if (reservation.counter == counter) {
+                reserved += reservation.quantity;
+            }
+        }
+        return FlashSaleDto.builder()
+                .productId(productId)
+                .productName(counter.productName)
+                .available(counter.available.get())
+                .reserved(reserved)
+                .build();
+    }
+
+    // Outside a transaction there is nothing to roll back: onCommit runs straight away
+    private static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else if (status == STATUS_ROLLED_BACK) {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    private Object lock(String owner) {
+        return locks[Math.floorMod(owner.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static final class Counter {
+        private final String productName;
+        private final AtomicInteger available;
+
+        Counter(String productName, int available) {
+            this.productName = productName;
+            this.available = new AtomicInteger(available);
+        }
+
+        boolean take(int quantity) {
+            while (true) {
+                int current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+                if (available.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+
+        void give(int quantity) {
+            if (quantity > 0) {
+                available.addAndGet(quantity);
+            }
+        }
+
+        // A cut larger than what is left on sale leaves nothing on sale; reservations already held stand
+        int adjust(int delta) {
+            return available.updateAndGet(current -> Math.max(0, current + delta));
+        }
+    }
+
+    private static final class Reservation {
+        private final String id;
+        private final String owner;
+        private final Long productId;
+        private final Counter counter;
+        private final int quantity;
+        private final Instant expiresAt;
+
+        Reservation(String id, String owner, Long productId, Counter counter, int quantity, Instant expiresAt) {
+            this.id = id;
+            this.owner = owner;
+            this.productId = productId;
+            this.counter = counter;
+            this.quantity = quantity;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.InvalidCursorException;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Position of the last row of a keyset (seek) page: the sort key and id of that row.
+ *
+ * Encoded as an opaque URL-safe token that also records the sort it was issued for, so a
+ * cursor cannot be replayed against a different ordering.
+ */
+final class KeysetCursor {
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final String value;
+    private final Long id;
+
+    private KeysetCursor(String sortBy, Sort.Direction direction, String value, Long id) {
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    static String encode(String sortBy, Sort.Direction direction, String value, Long id) {
+        String raw = sortBy + "\n" + direction.name() + "\n" + id + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String cursor, String sortBy, Sort.Direction direction) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 4);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (parts.length != 4) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (!parts[0].equals(sortBy) || !parts[1].equals(direction.name())) {
+            throw new InvalidCursorException("Cursor was issued for a different sort order");
+        }
+        try {
+            return new KeysetCursor(parts[0], direction, parts[3], Long.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    /**
+     * Rows strictly after this position in (sortBy, id) order, in the cursor's direction.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    <T> Specification<T> toSpecification(Function<String, ? extends Comparable> valueParser) {
+        Comparable key;
+        try {
+            key = valueParser.apply(value);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        boolean ascending = direction.isAscending();
+        return (root, query, criteriaBuilder) -> {
+            Path<Long> idPath = root.get("id");
+            Predicate idAfter = ascending ? criteriaBuilder.greaterThan(idPath, id) : criteriaBuilder.lessThan(idPath, id);
+            if (sortBy.equals("id")) {
+                return idAfter;
+            }
+            Path<Comparable> keyPath = root.get(sortBy);
+            Predicate keyAfter = ascending ? criteriaBuilder.greaterThan(keyPath, key) : criteriaBuilder.lessThan(keyPath, key);
+            return criteriaBuilder.or(keyAfter, criteriaBuilder.and(criteriaBuilder.equal(keyPath, key), idAfter));
+        };
+    }
+
+    /**
+     * The requested page size, kept within 1..MAX_PAGE_SIZE.
+     */
+    static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    static Sort.Direction direction(String sortDirection) {
+        return Sort.Direction.fromOptionalString(sortDirection)
+                .orElseThrow(() -> new InvalidCursorException("Sort direction must be asc or desc"));
+    }
+
+    static Sort sort(String sortBy, Sort.Direction direction) {
+        return sortBy.equals("id") ? Sort.by(direction, "id") : Sort.by(direction, sortBy, "id");
+    }
+}
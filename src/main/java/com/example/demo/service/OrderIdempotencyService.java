@@ -0,0 +1,188 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OrderDto;
+import com.example.demo.dto.OrderIntakeDto;
+import com.example.demo.exception.IdempotencyKeyReusedException;
+import com.example.demo.exception.InvalidIdempotencyKeyException;
+import com.example.demo.model.IdempotencyRecord;
+import com.example.demo.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+/**
+ * Idempotency-Key support for POST /api/orders: a retry with the same key and the same request
+ * gets the order created the first time, without running createOrder again.
+ *
+ * Keys are looked up in memory first, then in idempotency_keys. A new key is inserted before the
+ * order in the same transaction, so a concurrent retry waits on it and then finds the committed
+ * order instead of creating a second one. Reusing a key for a different request is refused with
+ * 422. Keys expire after app.orders.idempotency.ttl.
+ */
+@Service
+public class OrderIdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String INSERT_KEY_SQL =
+            "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at) VALUES (?, ?, ?, ?)";
+    private static final String SET_ORDER_SQL = "UPDATE idempotency_keys SET order_id = ? WHERE idempotency_key = ?";
+
+    private final OrderService orderService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, StoredOrder> orders;
+    // Asynchronous intake: handles live only in memory, like the queue itself
+    private final Cache<String, StoredOrder> intakes;
+
+    public OrderIdempotencyService(OrderService orderService,
+                                   IdempotencyRecordRepository idempotencyRecordRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   @Value("${app.orders.idempotency.ttl:PT24H}") Duration ttl,
+                                   @Value("${app.orders.idempotency.max-cached-keys:10000}") long maxCachedKeys) {
+        this.orderService = orderService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.orders = Caffeine.newBuilder()
+                .maximumSize(maxCachedKeys)
+                .expireAfterWrite(ttl)
+                .build();
+        this.intakes = Caffeine.newBuilder()
+                .maximumSize(maxCachedKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public OrderDto createOrder(String idempotencyKey, OrderDto orderDto) {
+        checkKey(idempotencyKey);
+        String requestHash = requestHash(orderDto);
+        OrderDto existing = findOrder(idempotencyKey, requestHash);
+        if (existing != null) {
+            return existing;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OrderDto created;
+        try {
+            created = transactionTemplate.execute(status -> {
+                jdbcTemplate.update(INSERT_KEY_SQL, idempotencyKey, requestHash,
+                        Timestamp.valueOf(now), Timestamp.valueOf(now.plus(ttl)));
+                OrderDto order = orderService.createOrder(orderDto);
+                jdbcTemplate.update(SET_ORDER_SQL, order.getId(), idempotencyKey);
+                return order;
+            });
+        } catch (DuplicateKeyException e) {
+            // A concurrent request with the same key committed first
+            existing = findOrder(idempotencyKey, requestHash);
+            if (existing == null) {
+                throw e;
+            }
+            return existing;
+        }
+        orders.put(idempotencyKey, new StoredOrder(requestHash, created, null));
+        return created;
+    }
+
+    /**
+     * Queues the order through {@code submitter} unless the key was already queued, in which case
+     * the original handle is returned.
+     */
+    public OrderIntakeDto submit(String idempotencyKey, OrderDto orderDto, Function<OrderDto, OrderIntakeDto> submitter) {
+        checkKey(idempotencyKey);
+        String requestHash = requestHash(orderDto);
+        // Nothing is kept when the submitter refuses the order
+        StoredOrder stored = intakes.asMap().computeIfAbsent(idempotencyKey,
+                key -> new StoredOrder(requestHash, null, submitter.apply(orderDto)));
+        checkSameRequest(stored, requestHash);
+        return stored.intake;
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.cleanup-interval:PT1H}")
+    public void deleteExpiredKeys() {
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private OrderDto findOrder(String idempotencyKey, String requestHash) {
+        StoredOrder stored = orders.getIfPresent(idempotencyKey);
+        if (stored == null) {
+            IdempotencyRecord record = idempotencyRecordRepository.findById(idempotencyKey).orElse(null);
+            if (record == null) {
+                return null;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (record.getExpiresAt().isBefore(now)) {
+                idempotencyRecordRepository.deleteIfExpired(idempotencyKey, now);
+                return null;
+            }
+            stored = new StoredOrder(record.getRequestHash(), orderService.getOrderById(record.getOrderId()), null);
+            orders.put(idempotencyKey, stored);
+        }
+        checkSameRequest(stored, requestHash);
+        return stored.order;
+    }
+
+    private void checkSameRequest(StoredOrder stored, String requestHash) {
+        if (!stored.requestHash.equals(requestHash)) {
+            throw reused();
+        }
+    }
+
+    private static IdempotencyKeyReusedException reused() {
+        return new IdempotencyKeyReusedException("Idempotency-Key was already used for a different order");
+    }
+
+    private static void checkKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private String requestHash(OrderDto orderDto) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(orderDto));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint the order request", e);
+        }
+    }
+
+    private static final class StoredOrder {
+        private final String requestHash;
+        private final OrderDto order;
+        private final OrderIntakeDto intake;
+
+        StoredOrder(String requestHash, OrderDto order, OrderIntakeDto intake) {
+            this.requestHash = requestHash;
+            this.order = order;
+            this.intake = intake;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OrderDto;
+import com.example.demo.dto.OrderIntakeDto;
+import com.example.demo.exception.OrderQueueFullException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous intake for POST /api/orders, used when app.orders.async-intake.enabled is set.
+ *
+ * Validated orders wait in a bounded queue and are placed by a fixed set of worker threads, so a
+ * checkout peak holds neither request threads nor database connections while it waits; when the
+ * queue is full the order is refused with 429 instead. Each worker takes up to batch-size orders
+ * and places them in one transaction. If any of them fails, the batch is rolled back and its
+ * orders are placed one by one, so a bad order only rejects itself. Outcomes are kept for
+ * status-ttl under a random handle.
+ */
+@Component
+public class OrderIntakeQueue {
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeQueue.class);
+
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final BlockingQueue<QueuedOrder> queue;
+    private final Cache<String, OrderIntakeDto> outcomes;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean accepting = true;
+
+    public OrderIntakeQueue(OrderService orderService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.orders.async-intake.enabled:false}") boolean enabled,
+                            @Value("${app.orders.async-intake.worker-threads:4}") int workerThreads,
+                            @Value("${app.orders.async-intake.queue-capacity:1000}") int queueCapacity,
+                            @Value("${app.orders.async-intake.batch-size:20}") int batchSize,
+                            @Value("${app.orders.async-intake.status-ttl:PT1H}") Duration statusTtl) {
+        this.orderService = orderService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.outcomes = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .build();
+        if (enabled) {
+            for (int i = 1; i <= workerThreads; i++) {
+                Thread worker = new Thread(this::work, "order-intake-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues an already validated order and returns its handle.
+     *
+     * @throws OrderQueueFullException when the queue is full
+     */
+    public OrderIntakeDto submit(OrderDto orderDto) {
+        OrderIntakeDto queued = OrderIntakeDto.builder()
+                .handle(UUID.randomUUID().toString())
+                .status(OrderIntakeDto.Status.QUEUED)
+                .submittedAt(Instant.now())
+                .build();
+        // Recorded first, so a worker finishing the order straight away is not overwritten
+        outcomes.put(queued.getHandle(), queued);
+        if (!accepting || !queue.offer(new QueuedOrder(queued, orderDto))) {
+            outcomes.invalidate(queued.getHandle());
+            throw new OrderQueueFullException("Too many orders are waiting to be placed, please try again shortly");
+        }
+        return queued;
+    }
+
+    public OrderIntakeDto getStatus(String handle) {
+        OrderIntakeDto outcome = outcomes.getIfPresent(handle);
+        if (outcome == null) {
+            throw new ResourceNotFoundException("Order", "handle", handle);
+        }
+        if (outcome.getStatus() != OrderIntakeDto.Status.COMPLETED) {
+            return outcome;
+        }
+        return OrderIntakeDto.builder()
+                .handle(outcome.getHandle())
+                .status(outcome.getStatus())
+                .submittedAt(outcome.getSubmittedAt())
+                .orderId(outcome.getOrderId())
+                .order(orderService.getOrderById(outcome.getOrderId()))
+                .build();
+    }
+
+    private void work() {
+        List<QueuedOrder> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                QueuedOrder first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                place(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Order intake worker failed on {} order(s)", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void place(List<QueuedOrder> batch) {
+        if (batch.size() > 1) {
+            try {
+                // createOrder joins this transaction: one connection and one commit for the whole batch
+                List<OrderDto> created = transactionTemplate.execute(status -> batch.stream()
+                        .map(queued -> orderService.createOrder(queued.order))
+                        .toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    completed(batch.get(i), created.get(i));
+                }
+                return;
+            } catch (RuntimeException e) {
+                logger.debug("Batch of {} orders rolled back, placing them one by one: {}", batch.size(), e.getMessage());
+            }
+        }
+        for (QueuedOrder queued : batch) {
+            try {
+                completed(queued, orderService.createOrder(queued.order));
+            } catch (RuntimeException e) {
+                rejected(queued, e);
+            }
+        }
+    }
+
+    private void completed(QueuedOrder queued, OrderDto order) {
+        outcomes.put(queued.intake.getHandle(), OrderIntakeDto.builder()
+                .handle(queued.intake.getHandle())
+                .status(OrderIntakeDto.Status.COMPLETED)
+                .submittedAt(queued.intake.getSubmittedAt())
+                .orderId(order.getId())
+                .build());
+    }
+
+    private void rejected(QueuedOrder queued, RuntimeException e) {
+        ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        HttpStatus status = responseStatus != null ? responseStatus.code() : HttpStatus.INTERNAL_SERVER_ERROR;
+        if (status.is5xxServerError()) {
+            logger.error("Could not place queued order {}", queued.intake.getHandle(), e);
+        }
+        outcomes.put(queued.intake.getHandle(), OrderIntakeDto.builder()
+                .handle(queued.intake.getHandle())
+                .status(OrderIntakeDto.Status.REJECTED)
+                .submittedAt(queued.intake.getSubmittedAt())
+                .errorStatus(status.value())
+                .error(status.is5xxServerError() ? "The order could not be placed" : e.getMessage())
+                .build());
+    }
+
+    /**
+     * Stops taking orders and lets the workers place the ones already queued.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Shut down with {} queued order(s) not placed", queue.size());
+        }
+    }
+
+    static final class QueuedOrder {
+        private final OrderIntakeDto intake;
+        private final OrderDto order;
+
+        QueuedOrder(OrderIntakeDto intake, OrderDto order) {
+            this.intake = intake;
+            this.order = order;
+        }
+
+        OrderIntakeDto getIntake() {
+            return intake;
+        }
+    }
+}
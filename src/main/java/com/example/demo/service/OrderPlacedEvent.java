@@ -0,0 +1,31 @@
+package com.example.demo.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Published by {@link OrderServiceImpl#createOrder} inside the order transaction. Read models
+ * listen for it after commit, so a rolled back order never reaches them.
+ */
+public final class OrderPlacedEvent {
+    private final Long orderId;
+    private final Map<Long, Integer> quantitiesByProductId;
+
+    public OrderPlacedEvent(Long orderId, Map<Long, Integer> quantitiesByProductId) {
+        this.orderId = orderId;
+        this.quantitiesByProductId = Collections.unmodifiableMap(new LinkedHashMap<>(quantitiesByProductId));
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Units ordered per product, in order of first appearance; a product listed on several lines
+     * appears once with the summed quantity.
+     */
+    public Map<Long, Integer> getQuantitiesByProductId() {
+        return quantitiesByProductId;
+    }
+}
@@ -1,12 +1,22 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPageDto;
 import com.example.demo.dto.OrderDto;
+import com.example.demo.dto.OrderStatusUpdateResultDto;
+import com.example.demo.dto.OrderSummaryDto;
+import com.example.demo.model.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import java.util.List;
 
 public interface OrderService {
     OrderDto createOrder(OrderDto orderDto);
     OrderDto getOrderById(Long id);
-    List<OrderDto> getAllOrders();
+    Page<OrderDto> getOrders(Order.OrderStatus status, Pageable pageable);
+    CursorPageDto<OrderDto> scrollOrders(String cursor, int size, String sortDirection);
+    CursorPageDto<OrderSummaryDto> getCustomerOrders(String customerEmail, String cursor, int size, boolean includeItems);
     OrderDto updateOrderStatus(Long id, String status);
+    OrderStatusUpdateResultDto updateOrderStatuses(List<Long> orderIds, Order.OrderStatus status);
     void deleteOrder(Long id);
 }
@@ -1,7 +1,14 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPageDto;
 import com.example.demo.dto.OrderDto;
 import com.example.demo.dto.OrderItemDto;
+import com.example.demo.dto.OrderLineDto;
+import com.example.demo.dto.OrderStatusOutcomeDto;
+import com.example.demo.dto.OrderStatusUpdateResultDto;
+import com.example.demo.dto.OrderSummaryDto;
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.exception.InvalidOrderStatusTransitionException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Order;
 import com.example.demo.model.OrderItem;
@@ -10,15 +17,31 @@ import com.example.demo.repository.OrderItemRepository;
 import com.example.demo.repository.OrderRepository;
 import com.example.demo.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderServiceImpl implements OrderService {
+    private static final int MAX_PAGE_SIZE = 100;
+    // Stays under SQL Server's limit of 2100 parameters per statement
+    private static final int MAX_IDS_PER_QUERY = 1000;
 
     @Autowired
     private OrderRepository orderRepository;
@@ -29,6 +52,15 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private InventoryReservationService inventoryReservationService;
+
+    @Autowired
+    private ProductSalesRecorder productSalesRecorder;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     @Transactional
     public OrderDto createOrder(OrderDto orderDto) {
@@ -40,11 +72,32 @@ public class OrderServiceImpl implements OrderService {
         order.setOrderDate(LocalDateTime.now());
         order.setStatus(Order.OrderStatus.PENDING);
 
+        Map<Long, Integer> quantitiesByProductId = new LinkedHashMap<>();
+        for (OrderItemDto itemDto : orderDto.getOrderItems()) {
+            quantitiesByProductId.merge(itemDto.getProductId(), itemDto.getQuantity(), Integer::sum);
+        }
+        Map<Long, Product> productsById = productRepository.findAllById(quantitiesByProductId.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (Long productId : quantitiesByProductId.keySet()) {
+            if (!productsById.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+        }
+        // Flash-sale products are taken from memory; the rest with conditional updates, so concurrent
+        // orders can never take stock below zero. Both are undone if any line is short.
+        Map<Long, Integer> allocated = inventoryReservationService.allocate(quantitiesByProductId, orderDto.getReservationIds());
+        Map<Long, Integer> fromDatabase = new LinkedHashMap<>(quantitiesByProductId);
+        fromDatabase.keySet().removeAll(allocated.keySet());
+        List<Long> insufficient = fromDatabase.isEmpty() ? List.of() : productRepository.decrementStock(fromDatabase);
+        if (!insufficient.isEmpty()) {
+            Product product = productsById.get(insufficient.get(0));
+            throw new InsufficientStockException(product.getId(), product.getName(),
+                    quantitiesByProductId.get(product.getId()), product.getStock());
+        }
+
         List<OrderItem> orderItems = orderDto.getOrderItems().stream()
                 .map(itemDto -> {
-                    Product product = productRepository.findById(itemDto.getProductId())
-                            .orElseThrow(() -> new ResourceNotFoundException("Product", "id", itemDto.getProductId()));
-                    
+                    Product product = productsById.get(itemDto.getProductId());
                     OrderItem orderItem = new OrderItem();
                     orderItem.setOrder(order);
                     orderItem.setProduct(product);
@@ -58,6 +111,9 @@ public class OrderServiceImpl implements OrderService {
         order.setTotalAmount(calculateTotalAmount(orderItems));
 
         Order savedOrder = orderRepository.save(order);
+        inventoryReservationService.recordDeductions(savedOrder.getId(), allocated);
+        productSalesRecorder.record(quantitiesByProductId);
+        eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder.getId(), quantitiesByProductId));
         return convertToDto(savedOrder);
     }
 
@@ -69,10 +125,89 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public List<OrderDto> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(this::convertToDto)
+    @Transactional(readOnly = true)
+    public Page<OrderDto> getOrders(Order.OrderStatus status, Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getPageSize() > MAX_PAGE_SIZE) {
+            pageable = PageRequest.of(pageable.isPaged() ? pageable.getPageNumber() : 0, MAX_PAGE_SIZE, pageable.getSort());
+        }
+        Specification<Order> spec = status == null ? null
+                : (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("status"), status);
+        // The orders' own columns, then all their lines with one projection query
+        Page<Order> orders = orderRepository.findAll(spec, pageable);
+        return new PageImpl<>(convertToDtos(orders.getContent()), pageable, orders.getTotalElements());
+    }
+
+    @Override
+    public CursorPageDto<OrderDto> scrollOrders(String cursor, int size, String sortDirection) {
+        Sort.Direction direction = KeysetCursor.direction(sortDirection);
+        int pageSize = KeysetCursor.pageSize(size);
+        Specification<Order> spec = Specification.where(null);
+        if (cursor != null && !cursor.isEmpty()) {
+            spec = KeysetCursor.decode(cursor, "orderDate", direction).toSpecification(LocalDateTime::parse);
+        }
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        Sort sort = KeysetCursor.sort("orderDate", direction);
+        List<Order> orders = orderRepository.findBy(spec, query -> query.sortBy(sort).limit(pageSize + 1).all());
+        boolean hasNext = orders.size() > pageSize;
+        List<Order> pageOrders = hasNext ? orders.subList(0, pageSize) : orders;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = pageOrders.get(pageOrders.size() - 1);
+            nextCursor = KeysetCursor.encode("orderDate", direction, last.getOrderDate().toString(), last.getId());
+        }
+        return CursorPageDto.<OrderDto>builder()
+                .content(convertToDtos(pageOrders))
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Newest orders first, seeking on (customerEmail, orderDate, id) so a page is read straight
+     * from idx_orders_customer_email_order_date_id. Lines are read only with includeItems.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderSummaryDto> getCustomerOrders(String customerEmail, String cursor, int size,
+                                                            boolean includeItems) {
+        size = KeysetCursor.pageSize(size);
+        Specification<Order> spec = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("customerEmail"), customerEmail);
+        if (cursor != null && !cursor.isEmpty()) {
+            spec = spec.and(KeysetCursor.decode(cursor, "orderDate", Sort.Direction.DESC)
+                    .toSpecification(LocalDateTime::parse));
+        }
+
+        Sort sort = KeysetCursor.sort("orderDate", Sort.Direction.DESC);
+        int limit = size + 1;
+        List<Order> orders = orderRepository.findBy(spec, query -> query.sortBy(sort).limit(limit).all());
+        boolean hasNext = orders.size() > size;
+        List<Order> pageOrders = hasNext ? orders.subList(0, size) : orders;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = pageOrders.get(pageOrders.size() - 1);
+            nextCursor = KeysetCursor.encode("orderDate", Sort.Direction.DESC, last.getOrderDate().toString(), last.getId());
+        }
+        Map<Long, List<OrderItemDto>> itemsByOrderId = includeItems ? loadItems(pageOrders) : Map.of();
+        List<OrderSummaryDto> summaries = pageOrders.stream()
+                .map(order -> OrderSummaryDto.builder()
+                        .id(order.getId())
+                        .orderDate(order.getOrderDate())
+                        .status(order.getStatus())
+                        .totalAmount(order.getTotalAmount())
+                        .orderItems(includeItems ? itemsByOrderId.getOrDefault(order.getId(), new ArrayList<>()) : null)
+                        .build())
                 .collect(Collectors.toList());
+        return CursorPageDto.<OrderSummaryDto>builder()
+                .content(summaries)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Override
@@ -80,30 +215,134 @@ public class OrderServiceImpl implements OrderService {
     public OrderDto updateOrderStatus(Long id, String status) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
-        order.setStatus(Order.OrderStatus.valueOf(status));
-        return convertToDto(orderRepository.save(order));
+        Order.OrderStatus newStatus = Order.OrderStatus.valueOf(status);
+        if (order.getStatus() == newStatus) {
+            return convertToDto(order);
+        }
+        if (!order.getStatus().canTransitionTo(newStatus)) {
+            throw new InvalidOrderStatusTransitionException(
+                    "Order " + id + " cannot move from " + order.getStatus() + " to " + newStatus);
+        }
+        // Guarded on the status read, so two concurrent cancellations put the stock back once
+        if (orderRepository.updateStatus(List.of(id), order.getStatus(), newStatus) == 0) {
+            throw new InvalidOrderStatusTransitionException("Order " + id + " was changed concurrently");
+        }
+        if (newStatus == Order.OrderStatus.CANCELLED) {
+            releaseStock(List.of(id));
+        }
+        OrderDto orderDto = convertToDto(order);
+        orderDto.setStatus(newStatus);
+        return orderDto;
+    }
+
+    /**
+     * Checks each order against the state machine and moves the allowed ones with one UPDATE per
+     * chunk and current status, guarded on that status so an order changed since it was read is
+     * reported as a conflict rather than overwritten.
+     */
+    @Override
+    @Transactional
+    public OrderStatusUpdateResultDto updateOrderStatuses(List<Long> orderIds, Order.OrderStatus status) {
+        List<Long> ids = orderIds.stream().distinct().toList();
+        Map<Long, OrderStatusOutcomeDto> outcomes = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+            Map<Long, Order.OrderStatus> current = findStatuses(chunk);
+
+            Map<Order.OrderStatus, List<Long>> movable = new EnumMap<>(Order.OrderStatus.class);
+            for (Long id : chunk) {
+                Order.OrderStatus previous = current.get(id);
+                if (previous == null) {
+                    outcomes.put(id, outcome(id, OrderStatusOutcomeDto.Outcome.NOT_FOUND, null));
+                } else if (previous == status) {
+                    outcomes.put(id, outcome(id, OrderStatusOutcomeDto.Outcome.UNCHANGED, previous));
+                } else if (!previous.canTransitionTo(status)) {
+                    outcomes.put(id, outcome(id, OrderStatusOutcomeDto.Outcome.INVALID_TRANSITION, previous));
+                } else {
+                    movable.computeIfAbsent(previous, key -> new ArrayList<>()).add(id);
+                }
+            }
+
+            List<Long> moved = new ArrayList<>();
+            for (Map.Entry<Order.OrderStatus, List<Long>> group : movable.entrySet()) {
+                Order.OrderStatus previous = group.getKey();
+                List<Long> groupIds = group.getValue();
+                int updated = orderRepository.updateStatus(groupIds, previous, status);
+                // Only when some were changed concurrently is it worth finding out which
+                Map<Long, Order.OrderStatus> after = updated == groupIds.size() ? null : findStatuses(groupIds);
+                for (Long id : groupIds) {
+                    if (after == null || after.get(id) == status) {
+                        moved.add(id);
+                        outcomes.put(id, outcome(id, OrderStatusOutcomeDto.Outcome.UPDATED, previous));
+                    } else {
+                        outcomes.put(id, outcome(id, OrderStatusOutcomeDto.Outcome.CONFLICT, previous));
+                    }
+                }
+            }
+            if (status == Order.OrderStatus.CANCELLED && !moved.isEmpty()) {
+                releaseStock(moved);
+            }
+        }
+
+        List<OrderStatusOutcomeDto> ordered = ids.stream().map(outcomes::get).toList();
+        int updated = (int) ordered.stream()
+                .filter(outcome -> outcome.getOutcome() == OrderStatusOutcomeDto.Outcome.UPDATED)
+                .count();
+        return OrderStatusUpdateResultDto.builder()
+                .status(status)
+                .updated(updated)
+                .outcomes(ordered)
+                .build();
+    }
+
+    private Map<Long, Order.OrderStatus> findStatuses(List<Long> ids) {
+        Map<Long, Order.OrderStatus> statuses = new HashMap<>();
+        for (Object[] row : orderRepository.findStatusesByIdIn(ids)) {
+            statuses.put((Long) row[0], (Order.OrderStatus) row[1]);
+        }
+        return statuses;
+    }
+
+    private static OrderStatusOutcomeDto outcome(Long orderId, OrderStatusOutcomeDto.Outcome outcome,
+                                                 Order.OrderStatus previousStatus) {
+        return OrderStatusOutcomeDto.builder()
+                .orderId(orderId)
+                .outcome(outcome)
+                .previousStatus(previousStatus)
+                .build();
     }
 
     @Override
     @Transactional
     public void deleteOrder(Long id) {
-        if (!orderRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Order", "id", id);
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
+        // Orders that could still be cancelled hold their units; shipped ones and cancelled ones do not
+        if (order.getStatus().canTransitionTo(Order.OrderStatus.CANCELLED)) {
+            releaseStock(List.of(id));
         }
-        orderRepository.deleteById(id);
+        orderRepository.delete(order);
     }
 
-    private OrderDto convertToDto(Order order) {
-        OrderDto dto = new OrderDto();
-        dto.setId(order.getId());
-        dto.setCustomerName(order.getCustomerName());
-        dto.setCustomerEmail(order.getCustomerEmail());
-        dto.setCustomerPhone(order.getCustomerPhone());
-        dto.setShippingAddress(order.getShippingAddress());
-        dto.setOrderDate(order.getOrderDate());
-        dto.setStatus(order.getStatus());
-        dto.setTotalAmount(order.getTotalAmount());
+    // Puts the orders' units back on stock and takes them off sold in the caller's transaction,
+    // with one batch for all of them
+    private void releaseStock(List<Long> orderIds) {
+        Map<Long, Integer> quantitiesByProductId = new HashMap<>();
+        Map<Long, Integer> unsold = new HashMap<>();
+        for (Object[] row : orderItemRepository.sumQuantitiesByProductId(orderIds)) {
+            int quantity = ((Number) row[1]).intValue();
+            quantitiesByProductId.put((Long) row[0], quantity);
+            unsold.put((Long) row[0], -quantity);
+        }
+        if (quantitiesByProductId.isEmpty()) {
+            return;
+        }
+        productRepository.incrementStock(quantitiesByProductId);
+        productSalesRecorder.record(unsold);
+        eventPublisher.publishEvent(new OrderStockReleasedEvent(quantitiesByProductId));
+    }
 
+    private OrderDto convertToDto(Order order) {
         List<OrderItemDto> orderItemDtos = order.getOrderItems().stream()
                 .map(item -> {
                     OrderItemDto itemDto = new OrderItemDto();
@@ -112,17 +351,60 @@ public class OrderServiceImpl implements OrderService {
                     itemDto.setProductName(item.getProduct().getName());
                     itemDto.setQuantity(item.getQuantity());
                     itemDto.setPrice(item.getPrice());
-                    // Lấy hình ảnh đầu tiên từ mảng images
-                    String[] images = item.getProduct().getImages();
-                    itemDto.setImageUrl(images != null && images.length > 0 ? images[0] : null);
+                    itemDto.setImageUrl(firstImage(item.getProduct().getImages()));
                     return itemDto;
                 })
                 .collect(Collectors.toList());
+        return convertToDto(order, orderItemDtos);
+    }
+
+    // Lines of all the orders are read with one projection query per chunk instead of walking each
+    // order's items and their products lazily
+    private List<OrderDto> convertToDtos(List<Order> orders) {
+        Map<Long, List<OrderItemDto>> itemsByOrderId = loadItems(orders);
+        return orders.stream()
+                .map(order -> convertToDto(order, itemsByOrderId.getOrDefault(order.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
 
+    private Map<Long, List<OrderItemDto>> loadItems(List<Order> orders) {
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        Map<Long, List<OrderItemDto>> itemsByOrderId = new HashMap<>();
+        for (int from = 0; from < orderIds.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, orderIds.size()));
+            for (OrderLineDto line : orderItemRepository.findLinesByOrderIds(chunk)) {
+                OrderItemDto itemDto = new OrderItemDto();
+                itemDto.setId(line.getId());
+                itemDto.setProductId(line.getProductId());
+                itemDto.setProductName(line.getProductName());
+                itemDto.setQuantity(line.getQuantity());
+                itemDto.setPrice(line.getPrice());
+                itemDto.setImageUrl(firstImage(line.getProductImages()));
+                itemsByOrderId.computeIfAbsent(line.getOrderId(), orderId -> new ArrayList<>()).add(itemDto);
+            }
+        }
+        return itemsByOrderId;
+    }
+
+    private OrderDto convertToDto(Order order, List<OrderItemDto> orderItemDtos) {
+        OrderDto dto = new OrderDto();
+        dto.setId(order.getId());
+        dto.setCustomerName(order.getCustomerName());
+        dto.setCustomerEmail(order.getCustomerEmail());
+        dto.setCustomerPhone(order.getCustomerPhone());
+        dto.setShippingAddress(order.getShippingAddress());
+        dto.setOrderDate(order.getOrderDate());
+        dto.setStatus(order.getStatus());
+        dto.setTotalAmount(order.getTotalAmount());
         dto.setOrderItems(orderItemDtos);
         return dto;
     }
 
+    // Lấy hình ảnh đầu tiên từ mảng images
+    private static String firstImage(String[] images) {
+        return images != null && images.length > 0 ? images[0] : null;
+    }
+
     private Double calculateTotalAmount(List<OrderItem> orderItems) {
         return orderItems.stream()
                 .mapToDouble(item -> item.getPrice() * item.getQuantity())
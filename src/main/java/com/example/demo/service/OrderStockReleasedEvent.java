@@ -0,0 +1,24 @@
+package com.example.demo.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Published by {@link OrderServiceImpl} inside the transaction that put cancelled or deleted
+ * orders' units back on products.stock. Flash-sale counters and read models follow after commit.
+ */
+public final class OrderStockReleasedEvent {
+    private final Map<Long, Integer> quantitiesByProductId;
+
+    public OrderStockReleasedEvent(Map<Long, Integer> quantitiesByProductId) {
+        this.quantitiesByProductId = Collections.unmodifiableMap(new LinkedHashMap<>(quantitiesByProductId));
+    }
+
+    /**
+     * Units put back per product, summed over the orders.
+     */
+    public Map<Long, Integer> getQuantitiesByProductId() {
+        return quantitiesByProductId;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Products ranked by units sold, overall and per category, kept as ordered sets so the top K
+ * is read off the front instead of sorting the catalogue. A sales change moves one product
+ * in two sets (O(log n)).
+ */
+@Component
+public class ProductBestsellerIndex {
+
+    private static final Comparator<Ranked> BEST_SELLING_FIRST = Comparator.comparingInt((Ranked ranked) -> ranked.sold)
+            .reversed()
+            .thenComparing(ranked -> ranked.id);
+
+    private final Map<Long, Ranked> products = new HashMap<>();
+    private final NavigableSet<Ranked> overall = new TreeSet<>(BEST_SELLING_FIRST);
+    private final Map<Long, NavigableSet<Ranked>> byCategory = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild(Collection<ProductDto> all) {
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            overall.clear();
+            byCategory.clear();
+            for (ProductDto product : all) {
+                add(new Ranked(product.getId(), product.getCategoryId(), product.getSold()));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            Ranked previous = products.get(product.getId());
+            if (previous != null && previous.sold == product.getSold()
+                    && Objects.equals(previous.categoryId, product.getCategoryId())) {
+                return;
+            }
+            removeEntry(product.getId());
+            add(new Ranked(product.getId(), product.getCategoryId(), product.getSold()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the {@code limit} best-selling products, optionally within a category.
+     */
+    public List<Long> top(Long categoryId, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Ranked> ranking = categoryId == null ? overall : byCategory.get(categoryId);
+            if (ranking == null) {
+                return List.of();
+            }
+            List<Long> ids = new ArrayList<>(Math.min(limit, ranking.size()));
+            for (Ranked ranked : ranking) {
+                if (ids.size() == limit) {
+                    break;
+                }
+                ids.add(ranked.id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Ranked ranked) {
+        products.put(ranked.id, ranked);
+        overall.add(ranked);
+        if (ranked.categoryId != null) {
+            byCategory.computeIfAbsent(ranked.categoryId, key -> new TreeSet<>(BEST_SELLING_FIRST)).add(ranked);
+        }
+    }
+
+    private void removeEntry(Long id) {
+        Ranked previous = products.remove(id);
+        if (previous == null) {
+            return;
+        }
+        overall.remove(previous);
+        NavigableSet<Ranked> category = byCategory.get(previous.categoryId);
+        if (category != null) {
+            category.remove(previous);
+            if (category.isEmpty()) {
+                byCategory.remove(previous.categoryId);
+            }
+        }
+    }
+
+    private static final class Ranked {
+        final Long id;
+        final Long categoryId;
+        final int sold;
+
+        Ranked(Long id, Long categoryId, int sold) {
+            this.id = id;
+            this.categoryId = categoryId;
+            this.sold = sold;
+        }
+    }
+}
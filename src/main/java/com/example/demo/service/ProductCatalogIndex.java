@@ -0,0 +1,404 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductDto;
+import com.example.demo.dto.ProductFacetsDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory read model of the product catalogue used to answer filter queries without
+ * touching the database. Every product occupies a slot (ordered by id); brand, color and
+ * category are indexed as bitmaps over those slots and prices as a price-sorted primitive array.
+ *
+ * The index is rebuilt into an immutable snapshot on every change, so readers never lock.
+ * Entries are shared with callers and must be treated as read-only.
+ */
+@Component
+public class ProductCatalogIndex {
+
+    private static final Map<String, Comparator<ProductDto>> SORTABLE_PROPERTIES = Map.of(
+            "id", Comparator.comparing(ProductDto::getId),
+            "name", Comparator.comparing(ProductDto::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+            "price", Comparator.comparing(ProductDto::getPrice, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "brand", Comparator.comparing(ProductDto::getBrand, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+            "color", Comparator.comparing(ProductDto::getColor, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+            "categoryId", Comparator.comparing(ProductDto::getCategoryId, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "stock", Comparator.comparingInt(ProductDto::getStock),
+            "sold", Comparator.comparingInt(ProductDto::getSold)
+    );
+
+    private final Map<Long, ProductDto> products = new HashMap<>();
+    private volatile Snapshot snapshot;
+    // Seeded from the clock so versions handed out before a restart are not reused after it
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Returns true when the index is loaded and knows how to order results by the pageable's sort.
+     */
+    public boolean canServe(Pageable pageable) {
+        if (!isReady()) {
+            return false;
+        }
+        return pageable.getSort().stream()
+                .allMatch(order -> SORTABLE_PROPERTIES.containsKey(order.getProperty()));
+    }
+
+    public synchronized void rebuild(Collection<ProductDto> all) {
+        products.clear();
+        for (ProductDto product : all) {
+            products.put(product.getId(), product);
+        }
+        snapshot = Snapshot.build(products.values());
+        version.incrementAndGet();
+    }
+
+    public synchronized void upsert(ProductDto product) {
+        if (!isReady()) {
+            return;
+        }
+        products.put(product.getId(), product);
+        snapshot = Snapshot.build(products.values());
+        version.incrementAndGet();
+    }
+
+    public synchronized void upsertAll(Collection<ProductDto> changed) {
+        if (!isReady() || changed.isEmpty()) {
+            return;
+        }
+        for (ProductDto product : changed) {
+            products.put(product.getId(), product);
+        }
+        snapshot = Snapshot.build(products.values());
+        version.incrementAndGet();
+    }
+
+    public synchronized void remove(Long id) {
+        if (!isReady() || products.remove(id) == null) {
+            return;
+        }
+        snapshot = Snapshot.build(products.values());
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns the version of every indexed product by id, as a copy.
+     */
+    public synchronized Map<Long, Long> versions() {
+        Map<Long, Long> versions = new HashMap<>(products.size());
+        products.forEach((id, product) -> versions.put(id, product.getVersion()));
+        return versions;
+    }
+
+    public Optional<ProductDto> get(Long id) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int slot = current.slotOf(id);
+        return slot < 0 ? Optional.empty() : Optional.of(current.products[slot]);
+    }
+
+    /**
+     * Returns a number that changes whenever the indexed catalogue changes. Read it before
+     * querying the index: a concurrent change then yields a stale version, never a stale result.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.products.length;
+    }
+
+    /**
+     * Applies the same criteria as the JPA specification in {@link ProductServiceImpl}: name, brand and
+     * color are SQL LIKE patterns (case-insensitive), the price range is inclusive.
+     */
+    public Page<ProductDto> filter(String name, Long categoryId, String brand, String color,
+                                   Double minPrice, Double maxPrice, Pageable pageable) {
+        Snapshot current = loadedSnapshot();
+        BitSet matches = current.match(name, categoryId, brand, color, minPrice, maxPrice);
+        int total = matches.cardinality();
+        List<ProductDto> content = current.page(matches, pageable);
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Counts brands, colors, categories and price buckets over the products matching the criteria.
+     */
+    public ProductFacetsDto facets(String name, Long categoryId, String brand, String color,
+                                   Double minPrice, Double maxPrice, BigDecimal[] priceBounds) {
+        Snapshot current = loadedSnapshot();
+        BitSet matches = current.match(name, categoryId, brand, color, minPrice, maxPrice);
+        FacetCounter counter = new FacetCounter(priceBounds);
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            counter.add(current.products[slot]);
+        }
+        return counter.result();
+    }
+
+    private Snapshot loadedSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Product catalog index is not loaded");
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+        private final ProductDto[] products;
+        private final long[] ids;
+        private final Map<String, BitSet> byBrand;
+        private final Map<String, BitSet> byColor;
+        private final Map<Long, BitSet> byCategory;
+        private final int[] slotsByPrice;
+        private final double[] sortedPrices;
+
+        private Snapshot(ProductDto[] products, long[] ids, Map<String, BitSet> byBrand,
+                         Map<String, BitSet> byColor, Map<Long, BitSet> byCategory,
+                         int[] slotsByPrice, double[] sortedPrices) {
+            this.products = products;
+            this.ids = ids;
+            this.byBrand = byBrand;
+            this.byColor = byColor;
+            this.byCategory = byCategory;
+            this.slotsByPrice = slotsByPrice;
+            this.sortedPrices = sortedPrices;
+        }
+
+        static Snapshot build(Collection<ProductDto> values) {
+            ProductDto[] products = values.toArray(new ProductDto[0]);
+            Arrays.sort(products, Comparator.comparing(ProductDto::getId));
+
+            long[] ids = new long[products.length];
+            double[] prices = new double[products.length];
+            Map<String, BitSet> byBrand = new HashMap<>();
+            Map<String, BitSet> byColor = new HashMap<>();
+            Map<Long, BitSet> byCategory = new HashMap<>();
+
+            for (int slot = 0; slot < products.length; slot++) {
+                ProductDto product = products[slot];
+                ids[slot] = product.getId();
+                prices[slot] = product.getPrice() != null ? product.getPrice().doubleValue() : 0d;
+                if (product.getBrand() != null) {
+                    byBrand.computeIfAbsent(product.getBrand(), key -> new BitSet()).set(slot);
+                }
+                if (product.getColor() != null) {
+                    byColor.computeIfAbsent(product.getColor(), key -> new BitSet()).set(slot);
+                }
+                if (product.getCategoryId() != null) {
+                    byCategory.computeIfAbsent(product.getCategoryId(), key -> new BitSet()).set(slot);
+                }
+            }
+
+            int[] slotsByPrice = IntStream.range(0, products.length)
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(slot -> prices[slot]).thenComparingInt(slot -> slot))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            double[] sortedPrices = new double[slotsByPrice.length];
+            for (int i = 0; i < slotsByPrice.length; i++) {
+                sortedPrices[i] = prices[slotsByPrice[i]];
+            }
+
+            return new Snapshot(products, ids, byBrand, byColor, byCategory, slotsByPrice, sortedPrices);
+        }
+
+        int slotOf(Long id) {
+            return id == null ? -1 : Arrays.binarySearch(ids, id);
+        }
+
+        BitSet match(String name, Long categoryId, String brand, String color, Double minPrice, Double maxPrice) {
+            BitSet matches = all();
+            if (categoryId != null) {
+                matches.and(byCategory.getOrDefault(categoryId, new BitSet()));
+            }
+            if (brand != null && !brand.isEmpty()) {
+                matches.and(matchDictionary(byBrand, LikePattern.compile(brand)));
+            }
+            if (color != null && !color.isEmpty()) {
+                matches.and(matchDictionary(byColor, LikePattern.compile(color)));
+            }
+            if (minPrice != null || maxPrice != null) {
+                matches.and(priceRange(minPrice, maxPrice));
+            }
+            if (name != null && !name.isEmpty()) {
+                LikePattern pattern = LikePattern.compile(name);
+                for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                    if (!pattern.matches(products[slot].getName())) {
+                        matches.clear(slot);
+                    }
+                }
+            }
+            return matches;
+        }
+
+        BitSet all() {
+            BitSet all = new BitSet(products.length);
+            all.set(0, products.length);
+            return all;
+        }
+
+        BitSet matchDictionary(Map<String, BitSet> dictionary, LikePattern pattern) {
+            BitSet result = new BitSet(products.length);
+            for (Map.Entry<String, BitSet> entry : dictionary.entrySet()) {
+                if (pattern.matches(entry.getKey())) {
+                    result.or(entry.getValue());
+                }
+            }
+            return result;
+        }
+
+        BitSet priceRange(Double minPrice, Double maxPrice) {
+            int from = minPrice == null ? 0 : lowerBound(minPrice);
+            int to = maxPrice == null ? sortedPrices.length : upperBound(maxPrice);
+            BitSet result = new BitSet(products.length);
+            for (int i = from; i < to; i++) {
+                result.set(slotsByPrice[i]);
+            }
+            return result;
+        }
+
+        /** First position whose price is >= value. */
+        private int lowerBound(double value) {
+            int low = 0;
+            int high = sortedPrices.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedPrices[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** First position whose price is > value. */
+        private int upperBound(double value) {
+            int low = 0;
+            int high = sortedPrices.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedPrices[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        List<ProductDto> page(BitSet matches, Pageable pageable) {
+            long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+            int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+            Sort sort = pageable.getSort();
+
+            List<ProductDto> content = new ArrayList<>();
+            Sort.Order single = sort.stream().count() == 1 ? sort.iterator().next() : null;
+            if (sort.isUnsorted() || (single != null && single.getProperty().equals("id"))) {
+                boolean descending = single != null && single.isDescending();
+                int slot = descending ? matches.previousSetBit(products.length - 1) : matches.nextSetBit(0);
+                long skipped = 0;
+                while (slot >= 0 && content.size() < limit) {
+                    if (skipped++ >= offset) {
+                        content.add(products[slot]);
+                    }
+                    slot = descending ? matches.previousSetBit(slot - 1) : matches.nextSetBit(slot + 1);
+                }
+                return content;
+            }
+            if (single != null && single.getProperty().equals("price")) {
+                long skipped = 0;
+                for (int i = 0; i < slotsByPrice.length && content.size() < limit; i++) {
+                    int slot = slotsByPrice[single.isDescending() ? slotsByPrice.length - 1 - i : i];
+                    if (matches.get(slot) && skipped++ >= offset) {
+                        content.add(products[slot]);
+                    }
+                }
+                return content;
+            }
+
+            Comparator<ProductDto> comparator = null;
+            for (Sort.Order order : sort) {
+                Comparator<ProductDto> next = SORTABLE_PROPERTIES.get(order.getProperty());
+                if (order.isDescending()) {
+                    next = next.reversed();
+                }
+                comparator = comparator == null ? next : comparator.thenComparing(next);
+            }
+            return matches.stream()
+                    .mapToObj(slot -> products[slot])
+                    .sorted(comparator)
+                    .skip(offset)
+                    .limit(limit)
+                    .toList();
+        }
+    }
+
+    /**
+     * Case-insensitive evaluation of a SQL LIKE pattern ({@code %} and {@code _} wildcards).
+     */
+    static final class LikePattern {
+        private final String literal;
+        private final Pattern regex;
+
+        private LikePattern(String literal, Pattern regex) {
+            this.literal = literal;
+            this.regex = regex;
+        }
+
+        static LikePattern compile(String like) {
+            if (like.indexOf('%') < 0 && like.indexOf('_') < 0) {
+                return new LikePattern(like, null);
+            }
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            for (char c : like.toCharArray()) {
+                if (c == '%' || c == '_') {
+                    if (literal.length() > 0) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    regex.append(c == '%' ? ".*" : ".");
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+            return new LikePattern(null, Pattern.compile(regex.toString(),
+                    Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL));
+        }
+
+        boolean matches(String value) {
+            if (value == null) {
+                return false;
+            }
+            return regex == null ? literal.equalsIgnoreCase(value) : regex.matcher(value).matches();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CacheStatsDto;
+import com.example.demo.dto.ProductDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache in front of product detail lookups.
+ *
+ * Bounded by the estimated heap size of the cached DTOs (W-TinyLFU eviction) and by a TTL, so
+ * writes that bypass {@link ProductServiceImpl} are picked up eventually.
+ */
+@Component
+public class ProductDetailCache {
+
+    private final Cache<Long, ProductDto> cache;
+
+    public ProductDetailCache(@Value("${app.cache.product-detail.max-weight-bytes:67108864}") long maxWeightBytes,
+                              @Value("${app.cache.product-detail.ttl:PT10M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long id, ProductDto product) -> estimateSize(product))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public ProductDto get(Long id, Function<Long, ProductDto> loader) {
+        return cache.get(id, loader);
+    }
+
+    public ProductDto getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public CacheStatsDto stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsDto.builder()
+                .name("product-detail")
+                .entries(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    private static int estimateSize(ProductDto product) {
+        int size = 128;
+        size += stringSize(product.getName());
+        size += stringSize(product.getDescription());
+        size += stringSize(product.getBrand());
+        size += stringSize(product.getColor());
+        size += arraySize(product.getImageUrls());
+        size += arraySize(product.getThumbnailUrls());
+        return size;
+    }
+
+    private static int arraySize(String[] values) {
+        if (values == null) {
+            return 0;
+        }
+        int size = 16;
+        for (String value : values) {
+            size += 8 + stringSize(value);
+        }
+        return size;
+    }
+
+    private static int stringSize(String value) {
+        return value == null ? 0 : 40 + 2 * value.length();
+    }
+}
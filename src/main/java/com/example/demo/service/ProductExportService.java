@@ -0,0 +1,144 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductDto;
+import com.example.demo.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Catalog export for feed partners.
+ *
+ * Products are read through a forward-only projection cursor and written to the response as
+ * they arrive, so memory use does not depend on the size of the catalog. The CSV layout is the
+ * one accepted by {@link ProductImportService}.
+ */
+@Service
+public class ProductExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductExportService.class);
+    private static final String CSV_HEADER = "id,name,description,price,brand,color,categoryId,stock,images,sold";
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+
+    public ProductExportService(ProductRepository productRepository,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Flushing after every product would push each line to the socket separately
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+    }
+
+    public void exportNdjson(OutputStream output) throws IOException {
+        try (JsonGenerator generator = jsonWriter.createGenerator(newWriter(output))) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            long count = forEachProduct(product -> {
+                jsonWriter.writeValue(generator, product);
+                generator.writeRaw('\n');
+            });
+            logger.info("Exported {} products as NDJSON", count);
+        }
+    }
+
+    public void exportCsv(OutputStream output) throws IOException {
+        Writer writer = newWriter(output);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long count = forEachProduct(product -> {
+            writer.write(String.valueOf(product.getId()));
+            writer.write(',');
+            writeCsvField(writer, product.getName());
+            writer.write(',');
+            writeCsvField(writer, product.getDescription());
+            writer.write(',');
+            writer.write(product.getPrice() == null ? "" : product.getPrice().toPlainString());
+            writer.write(',');
+            writeCsvField(writer, product.getBrand());
+            writer.write(',');
+            writeCsvField(writer, product.getColor());
+            writer.write(',');
+            writer.write(product.getCategoryId() == null ? "" : String.valueOf(product.getCategoryId()));
+            writer.write(',');
+            writer.write(String.valueOf(product.getStock()));
+            writer.write(',');
+            writeCsvField(writer, product.getImageUrls() == null ? null : String.join("|", product.getImageUrls()));
+            writer.write(',');
+            writer.write(String.valueOf(product.getSold()));
+            writer.write('\n');
+        });
+        writer.flush();
+        logger.info("Exported {} products as CSV", count);
+    }
+
+    private static Writer newWriter(OutputStream output) {
+        return new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private long forEachProduct(ProductWriter productWriter) throws IOException {
+        try {
+            Long count = transactionTemplate.execute(status -> {
+                long written = 0;
+                try (Stream<ProductDto> products = productRepository.streamProductDtos(fetchSize)) {
+                    Iterator<ProductDto> iterator = products.iterator();
+                    while (iterator.hasNext()) {
+                        productWriter.write(iterator.next());
+                        written++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return written;
+            });
+            return count == null ? 0 : count;
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor has been closed and the transaction rolled back
+            throw e.getCause();
+        }
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @FunctionalInterface
+    private interface ProductWriter {
+        void write(ProductDto product) throws IOException;
+    }
+}
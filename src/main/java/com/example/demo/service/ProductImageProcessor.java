@@ -0,0 +1,179 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Generates resized JPEG variants of uploaded product images off the request thread.
+ *
+ * Work runs on a small fixed pool with a bounded queue; when the queue is full the upload keeps
+ * its original images rather than blocking the request.
+ */
+@Component
+public class ProductImageProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImageProcessor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final int mediumWidth;
+    private final int thumbnailWidth;
+    private final float quality;
+
+    public ProductImageProcessor(@Value("${app.images.worker-threads:2}") int workerThreads,
+                                 @Value("${app.images.queue-capacity:100}") int queueCapacity,
+                                 @Value("${app.images.medium-width:960}") int mediumWidth,
+                                 @Value("${app.images.thumbnail-width:320}") int thumbnailWidth,
+                                 @Value("${app.images.jpeg-quality:0.82}") float quality) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "product-images-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.mediumWidth = mediumWidth;
+        this.thumbnailWidth = thumbnailWidth;
+        this.quality = quality;
+    }
+
+    /**
+     * Queues variant generation for the given original files and hands the results to
+     * {@code onComplete} on a worker thread.
+     *
+     * @return false when the queue is full and nothing was scheduled
+     */
+    public boolean submit(List<Path> originals, Consumer<List<ImageVariants>> onComplete) {
+        try {
+            executor.execute(() -> {
+                List<ImageVariants> variants = new ArrayList<>(originals.size());
+                for (Path original : originals) {
+                    variants.add(process(original));
+                }
+                try {
+                    onComplete.accept(variants);
+                } catch (RuntimeException e) {
+                    logger.error("Could not record image variants for {}", originals, e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.warn("Image queue is full, keeping {} original image(s) without variants", originals.size());
+            return false;
+        }
+    }
+
+    ImageVariants process(Path original) {
+        try {
+            BufferedImage image = ImageIO.read(original.toFile());
+            if (image == null) {
+                logger.warn("Unsupported image format, keeping original: {}", original.getFileName());
+                return new ImageVariants(original, original, original);
+            }
+            Path medium = writeVariant(image, original, mediumWidth);
+            Path thumbnail = writeVariant(image, original, thumbnailWidth);
+            return new ImageVariants(original, medium, thumbnail);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not generate variants for image: {}", original.getFileName(), e);
+            return new ImageVariants(original, original, original);
+        }
+    }
+
+    private Path writeVariant(BufferedImage source, Path original, int maxWidth) throws IOException {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+
+        // JPEG has no alpha channel, so transparent areas are flattened onto white
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        String fileName = original.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        // Unique name: the same original may be processed for several products at once
+        Path target = Files.createTempFile(original.getParent(), baseName + "_w" + maxWidth + "-", ".jpg");
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        // ImageOutputStream does not close the stream it wraps
+        try (OutputStream file = Files.newOutputStream(target);
+             ImageOutputStream output = ImageIO.createImageOutputStream(file)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(resized, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return target;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Files generated for one original. Both variants point at the original when it could not be
+     * decoded.
+     */
+    public static final class ImageVariants {
+        private final Path original;
+        private final Path medium;
+        private final Path thumbnail;
+
+        ImageVariants(Path original, Path medium, Path thumbnail) {
+            this.original = original;
+            this.medium = medium;
+            this.thumbnail = thumbnail;
+        }
+
+        public Path getOriginal() {
+            return original;
+        }
+
+        public Path getMedium() {
+            return medium;
+        }
+
+        public Path getThumbnail() {
+            return thumbnail;
+        }
+
+        public boolean isResized() {
+            return !medium.equals(original);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ImageBlob;
+import com.example.demo.repository.ImageBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed storage for product images.
+ *
+ * Files are named by the SHA-256 of their bytes ({@code /images/products/ab/abcd….jpg}), so an
+ * image uploaded many times is stored once and its URL never points at different content. Each
+ * product image slot holds one reference in {@link ImageBlob#getRefCount()}; the file is deleted
+ * when the last reference is released. URLs not produced by this store are left alone.
+ */
+@Component
+public class ProductImageStore {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImageStore.class);
+    public static final String URL_PREFIX = "/images/products/";
+    private static final Pattern BLOB_URL = Pattern.compile(
+            Pattern.quote(URL_PREFIX) + "([0-9a-f]{2})/(\\1[0-9a-f]{62})\\.([a-z0-9]{1,10})");
+    private static final Pattern BLOB_FILE_NAME = Pattern.compile("([0-9a-f]{64})\\.[a-z0-9]{1,10}");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+    private static final int LOCK_STRIPES = 64;
+
+    private final ImageBlobRepository imageBlobRepository;
+    private final ImageFileResolver imageFileResolver;
+    private final Path rootDir;
+    // Serializes reference changes and file moves/deletes for the same hash on this node
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public ProductImageStore(ImageBlobRepository imageBlobRepository,
+                             ImageFileResolver imageFileResolver,
+                             @Value("${app.upload.dir}") String uploadDir) {
+        this.imageBlobRepository = imageBlobRepository;
+        this.imageFileResolver = imageFileResolver;
+        this.rootDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Stores an upload and takes one reference to it.
+     */
+    public String store(MultipartFile file) throws IOException {
+        Files.createDirectories(rootDir);
+        Path temp = Files.createTempFile(rootDir, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream input = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return commit(temp, HexFormat.of().formatHex(digest.digest()), extension(file.getOriginalFilename()));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Moves a generated file into the store and takes one reference to it.
+     */
+    public String store(Path file) throws IOException {
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream input = new DigestInputStream(Files.newInputStream(file), digest)) {
+                input.transferTo(OutputStream.nullOutputStream());
+            }
+            return commit(file, HexFormat.of().formatHex(digest.digest()), extension(file.getFileName().toString()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void retain(String... urls) {
+        if (urls == null) {
+            return;
+        }
+        for (String url : urls) {
+            Matcher matcher = match(url);
+            if (matcher != null) {
+                String hash = matcher.group(2);
+                synchronized (lock(hash)) {
+                    imageBlobRepository.adjustRefCount(hash, 1);
+                }
+            }
+        }
+    }
+
+    public void release(String... urls) {
+        if (urls == null) {
+            return;
+        }
+        for (String url : urls) {
+            Matcher matcher = match(url);
+            if (matcher == null) {
+                continue;
+            }
+            String hash = matcher.group(2);
+            synchronized (lock(hash)) {
+                imageBlobRepository.adjustRefCount(hash, -1);
+                if (imageBlobRepository.deleteIfUnreferenced(hash) > 0) {
+                    try {
+                        Files.deleteIfExists(blobPath(hash, matcher.group(3)));
+                        imageFileResolver.invalidate(url.substring("/images/".length()));
+                    } catch (IOException e) {
+                        logger.warn("Could not delete unreferenced image {}: {}", url, e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * File behind a URL issued by this store, or {@code null} for any other URL.
+     */
+    public Path resolve(String url) {
+        Matcher matcher = match(url);
+        return matcher == null ? null : blobPath(matcher.group(2), matcher.group(3));
+    }
+
+    /**
+     * Content hash encoded in a stored file name, or {@code null} for any other file.
+     */
+    public static String hashOfFileName(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        Matcher matcher = BLOB_FILE_NAME.matcher(fileName);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private String commit(Path source, String hash, String extension) throws IOException {
+        synchronized (lock(hash)) {
+            Optional<ImageBlob> existing = imageBlobRepository.findById(hash);
+            if (existing.isPresent()) {
+                // Same bytes already stored, possibly under another extension
+                extension = existing.get().getExtension();
+                imageBlobRepository.adjustRefCount(hash, 1);
+            } else {
+                imageBlobRepository.save(ImageBlob.builder()
+                        .hash(hash)
+                        .extension(extension)
+                        .size(Files.size(source))
+                        .refCount(1)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            }
+            Path target = blobPath(hash, extension);
+            String url = URL_PREFIX + hash.substring(0, 2) + "/" + hash + "." + extension;
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                imageFileResolver.invalidate(url.substring("/images/".length()));
+            }
+            return url;
+        }
+    }
+
+    private Path blobPath(String hash, String extension) {
+        return rootDir.resolve(hash.substring(0, 2)).resolve(hash + "." + extension);
+    }
+
+    private Object lock(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Matcher match(String url) {
+        if (url == null) {
+            return null;
+        }
+        Matcher matcher = BLOB_URL.matcher(url);
+        return matcher.matches() ? matcher : null;
+    }
+
+    private static String extension(String fileName) {
+        if (fileName != null) {
+            int dot = fileName.lastIndexOf('.');
+            if (dot >= 0) {
+                String extension = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+                if (EXTENSION.matcher(extension).matches()) {
+                    return extension;
+                }
+            }
+        }
+        return "bin";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package com.example.demo.service;
+
+import com.example.demo.config.StringArrayConverter;
+import com.example.demo.dto.CategoryDto;
+import com.example.demo.dto.ProductImportErrorDto;
+import com.example.demo.dto.ProductImportResultDto;
+import com.example.demo.exception.InvalidImportException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk product import from CSV or NDJSON.
+ *
+ * The input is parsed record by record straight from the request stream and inserted with JDBC
+ * batches, one short transaction per batch, so large files neither sit in memory nor hold locks
+ * on the products table for the whole import. Invalid rows are skipped and reported back. Each
+ * row takes a reference to the stored images it lists in the same transaction, and every batch
+ * adds the new products to the read models.
+ */
+@Service
+public class ProductImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+    // Sets the version and timestamp that conditional GETs are answered from
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, description, price, brand, color, category_id, stock, images, sold, version, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?)";
+    // SQL Server returns no generated keys for a batch; ids only grow, so new rows lie above the last one seen
+    private static final String NEW_IDS_SQL = "SELECT id FROM products WHERE id > ? ORDER BY id";
+    private static final String MAX_ID_SQL = "SELECT MAX(id) FROM products";
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final StringArrayConverter IMAGES_CONVERTER = new StringArrayConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryCatalog categoryCatalog;
+    private final ProductService productService;
+    private final ProductImageStore imageStore;
+    private final ObjectReader jsonReader;
+    private final int batchSize;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                CategoryCatalog categoryCatalog,
+                                ProductService productService,
+                                ProductImageStore imageStore,
+                                ObjectMapper objectMapper,
+                                @Value("${app.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.categoryCatalog = categoryCatalog;
+        this.productService = productService;
+        this.imageStore = imageStore;
+        this.jsonReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Imports a CSV file with a header row. Recognised columns: name, description, price, brand,
+     * color, category (name) or categoryId, stock and images (URLs separated by '|').
+     */
+    public ProductImportResultDto importCsv(InputStream input) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(newReader(input));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new InvalidImportException("CSV input is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(stripBom(header.get(i)).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "price", "brand")) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidImportException("CSV header is missing the '" + required + "' column");
+            }
+        }
+        if (!columns.containsKey("category") && !columns.containsKey("categoryid")) {
+            throw new InvalidImportException("CSV header needs a 'category' or 'categoryId' column");
+        }
+
+        ImportRun run = new ImportRun();
+        long record = 0;
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            record++;
+            ProductImportRow row = new ProductImportRow();
+            row.name = column(fields, columns, "name");
+            row.description = column(fields, columns, "description");
+            row.price = column(fields, columns, "price");
+            row.brand = column(fields, columns, "brand");
+            row.color = column(fields, columns, "color");
+            row.category = column(fields, columns, "category");
+            row.categoryId = column(fields, columns, "categoryid");
+            row.stock = column(fields, columns, "stock");
+            String images = column(fields, columns, "images");
+            row.images = images == null ? null : splitImages(images);
+            run.accept(record, row);
+        }
+        return run.finish();
+    }
+
+    /**
+     * Imports newline-delimited JSON, one product object per line, with the same fields as the
+     * CSV format ({@code images} being a JSON array of URLs).
+     */
+    public ProductImportResultDto importNdjson(InputStream input) throws IOException {
+        BufferedReader reader = newReader(input);
+        ImportRun run = new ImportRun();
+        long record = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            record++;
+            if (record == 1) {
+                line = stripBom(line);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = jsonReader.readTree(line);
+            } catch (JsonProcessingException e) {
+                run.reject(record, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                run.reject(record, "Expected a JSON object");
+                continue;
+            }
+            ProductImportRow row = new ProductImportRow();
+            row.name = text(node, "name");
+            row.description = text(node, "description");
+            row.price = text(node, "price");
+            row.brand = text(node, "brand");
+            row.color = text(node, "color");
+            row.category = text(node, "category");
+            row.categoryId = text(node, "categoryId");
+            row.stock = text(node, "stock");
+            JsonNode images = node.get("images");
+            if (images != null && images.isArray()) {
+                List<String> urls = new ArrayList<>(images.size());
+                images.forEach(url -> urls.add(url.asText()));
+                row.images = urls.toArray(new String[0]);
+            } else if (images != null && !images.isNull()) {
+                row.images = splitImages(images.asText());
+            }
+            run.accept(record, row);
+        }
+        return run.finish();
+    }
+
+    private static BufferedReader newReader(InputStream input) {
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private static String stripBom(String value) {
+        return !value.isEmpty() && value.charAt(0) == '\uFEFF' ? value.substring(1) : value;
+    }
+
+    private static String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String[] splitImages(String images) {
+        return Arrays.stream(images.split("\\|"))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Raw field values of one input record, before validation.
+     */
+    private static final class ProductImportRow {
+        String name;
+        String description;
+        String price;
+        String brand;
+        String color;
+        String category;
+        String categoryId;
+        String stock;
+        String[] images;
+    }
+
+    /**
+     * State of a single import: the category lookup loaded once up front, the pending batch and
+     * the running totals.
+     */
+    private final class ImportRun {
+        private final Map<String, Long> categoryIdsByName = new HashMap<>();
+        private final Set<Long> categoryIds = new HashSet<>();
+        private List<Object[]> batch = new ArrayList<>(batchSize);
+        private List<Long> batchRecords = new ArrayList<>(batchSize);
+        private List<String[]> batchImages = new ArrayList<>(batchSize);
+        private final List<ProductImportErrorDto> errors = new ArrayList<>();
+        private long lastSeenId;
+        private long processed;
+        private long imported;
+        private long failed;
+
+        ImportRun() {
+            for (CategoryDto category : categoryCatalog.all()) {
+                categoryIdsByName.put(category.getName().trim().toLowerCase(Locale.ROOT), category.getId());
+                categoryIds.add(category.getId());
+            }
+            Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+            lastSeenId = maxId == null ? 0 : maxId;
+        }
+
+        void accept(long record, ProductImportRow row) {
+            processed++;
+            Object[] parameters;
+            try {
+                parameters = toParameters(row);
+            } catch (IllegalArgumentException e) {
+                failed++;
+                addError(record, e.getMessage());
+                return;
+            }
+            batch.add(parameters);
+            batchRecords.add(record);
+            batchImages.add(row.images);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long record, String message) {
+            processed++;
+            failed++;
+            addError(record, message);
+        }
+
+        ProductImportResultDto finish() {
+            flush();
+            logger.info("Product import finished: {} records, {} imported, {} failed", processed, imported, failed);
+            return ProductImportResultDto.builder()
+                    .processed(processed)
+                    .imported(imported)
+                    .failed(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                    batchImages.forEach(imageStore::retain);
+                });
+                imported += batch.size();
+            } catch (DataAccessException e) {
+                logger.warn("Import batch of {} rows rejected, retrying row by row: {}", batch.size(),
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                insertIndividually();
+            }
+            indexNewProducts();
+            batch = new ArrayList<>(batchSize);
+            batchRecords = new ArrayList<>(batchSize);
+            batchImages = new ArrayList<>(batchSize);
+        }
+
+        // Also picks up products created meanwhile by others, which only refreshes them once more
+        private void indexNewProducts() {
+            List<Long> ids = jdbcTemplate.queryForList(NEW_IDS_SQL, Long.class, lastSeenId);
+            if (!ids.isEmpty()) {
+                productService.indexProducts(ids);
+                lastSeenId = ids.get(ids.size() - 1);
+            }
+        }
+
+        private void insertIndividually() {
+            for (int i = 0; i < batch.size(); i++) {
+                Object[] parameters = batch.get(i);
+                String[] images = batchImages.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.update(INSERT_SQL, parameters);
+                        imageStore.retain(images);
+                    });
+                    imported++;
+                } catch (DataAccessException e) {
+                    failed++;
+                    addError(batchRecords.get(i), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+
+        private void addError(long record, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(ProductImportErrorDto.builder().record(record).message(message).build());
+            }
+        }
+
+        private Object[] toParameters(ProductImportRow row) {
+            String name = trimToNull(row.name);
+            if (name == null) {
+                throw new IllegalArgumentException("Product name cannot be blank");
+            }
+            String brand = trimToNull(row.brand);
+            if (brand == null) {
+                throw new IllegalArgumentException("Brand cannot be blank");
+            }
+            String priceValue = trimToNull(row.price);
+            if (priceValue == null) {
+                throw new IllegalArgumentException("Price cannot be null");
+            }
+            BigDecimal price;
+            try {
+                price = new BigDecimal(priceValue);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid price: " + priceValue);
+            }
+            if (price.signum() < 0) {
+                throw new IllegalArgumentException("Price must be positive or zero");
+            }
+            int stock = 0;
+            String stockValue = trimToNull(row.stock);
+            if (stockValue != null) {
+                try {
+                    stock = Integer.parseInt(stockValue);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid stock: " + stockValue);
+                }
+                if (stock < 0) {
+                    throw new IllegalArgumentException("Stock must be positive or zero");
+                }
+            }
+            return new Object[]{
+                    name,
+                    trimToNull(row.description),
+                    price,
+                    brand,
+                    trimToNull(row.color),
+                    resolveCategory(row),
+                    stock,
+                    IMAGES_CONVERTER.convertToDatabaseColumn(row.images),
+                    Timestamp.from(Instant.now())
+            };
+        }
+
+        private Long resolveCategory(ProductImportRow row) {
+            String categoryId = trimToNull(row.categoryId);
+            if (categoryId != null) {
+                Long id;
+                try {
+                    id = Long.valueOf(categoryId);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid category id: " + categoryId);
+                }
+                if (!categoryIds.contains(id)) {
+                    throw new IllegalArgumentException("Category not found with id: " + id);
+                }
+                return id;
+            }
+            String category = trimToNull(row.category);
+            if (category == null) {
+                throw new IllegalArgumentException("Product must have a category");
+            }
+            Long id = categoryIdsByName.get(category.toLowerCase(Locale.ROOT));
+            if (id == null) {
+                throw new IllegalArgumentException("Category not found with name: " + category);
+            }
+            return id;
+        }
+    }
+}
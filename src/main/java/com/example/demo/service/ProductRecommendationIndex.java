@@ -0,0 +1,200 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.OrderItemRepository;
+import com.example.demo.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * "Frequently bought together": a sparse co-occurrence matrix of products ordered together,
+ * updated from each placed order.
+ *
+ * Each product keeps at most {@code app.recommendations.candidates-per-product} neighbours.
+ * When that row is full, a new neighbour replaces the least frequent one and inherits its
+ * count plus one (the Space-Saving heavy-hitters scheme), so memory stays bounded while
+ * frequently co-purchased products still surface. The matrix is built from the order history
+ * once at startup; afterwards only new orders are applied.
+ */
+@Component
+public class ProductRecommendationIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductRecommendationIndex.class);
+    // Pairs grow quadratically with basket size; huge (wholesale) orders say little about affinity
+    private static final int MAX_PRODUCTS_PER_ORDER = 50;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final int candidatesPerProduct;
+    private final Map<Long, Map<Long, Integer>> neighbours = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Orders up to this id are covered by the startup load; live events for them are ignored.
+    // Read and set under the write lock, so no event falls between the load's query and the mark
+    private long loadedUpToOrderId = Long.MAX_VALUE;
+
+    public ProductRecommendationIndex(OrderRepository orderRepository,
+                                      OrderItemRepository orderItemRepository,
+                                      @Value("${app.recommendations.candidates-per-product:50}") int candidatesPerProduct) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.candidatesPerProduct = candidatesPerProduct;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long orders = 0;
+        try {
+            Long maxOrderId;
+            lock.writeLock().lock();
+            try {
+                // Events handled before this committed orders the query sees; later ones are checked against the mark
+                maxOrderId = orderRepository.findMaxId();
+                loadedUpToOrderId = maxOrderId == null ? 0 : maxOrderId;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (maxOrderId == null) {
+                return;
+            }
+            try (Stream<Object[]> pairs = orderItemRepository.streamOrderProductPairs(maxOrderId)) {
+                Long currentOrderId = null;
+                Set<Long> basket = new LinkedHashSet<>();
+                Iterator<Object[]> iterator = pairs.iterator();
+                while (iterator.hasNext()) {
+                    Object[] pair = iterator.next();
+                    Long orderId = (Long) pair[0];
+                    if (!orderId.equals(currentOrderId)) {
+                        record(basket);
+                        basket.clear();
+                        currentOrderId = orderId;
+                        orders++;
+                    }
+                    basket.add((Long) pair[1]);
+                }
+                record(basket);
+            }
+            logger.info("Loaded co-purchases of {} orders into the recommendation index", orders);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                loadedUpToOrderId = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Could not load the order history, related products will only reflect new orders", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getOrderId() != null && event.getOrderId() <= loadedUpToOrderId) {
+                return;
+            }
+            record(event.getQuantitiesByProductId().keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products most often bought together with the product, most
+     * frequent first.
+     */
+    public List<Long> related(Long productId, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> row = neighbours.get(productId);
+            if (row == null || limit <= 0) {
+                return List.of();
+            }
+            List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(row.entrySet());
+            ranked.sort(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            return ranked.stream()
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Map<Long, Integer> row = neighbours.remove(productId);
+            if (row == null) {
+                return;
+            }
+            // Rows are pruned independently, so this catches all but the rare one-sided entry
+            for (Long neighbour : row.keySet()) {
+                Map<Long, Integer> neighbourRow = neighbours.get(neighbour);
+                if (neighbourRow != null) {
+                    neighbourRow.remove(productId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void record(Collection<Long> productIds) {
+        if (productIds.size() < 2) {
+            return;
+        }
+        List<Long> basket = productIds.stream().distinct().limit(MAX_PRODUCTS_PER_ORDER).toList();
+        lock.writeLock().lock();
+        try {
+            for (Long product : basket) {
+                Map<Long, Integer> row = neighbours.computeIfAbsent(product, key -> new HashMap<>());
+                for (Long other : basket) {
+                    if (!other.equals(product)) {
+                        increment(row, other);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void increment(Map<Long, Integer> row, Long neighbour) {
+        Integer count = row.get(neighbour);
+        if (count != null) {
+            row.put(neighbour, count + 1);
+            return;
+        }
+        if (row.size() < candidatesPerProduct) {
+            row.put(neighbour, 1);
+            return;
+        }
+        Map.Entry<Long, Integer> least = null;
+        for (Map.Entry<Long, Integer> entry : row.entrySet()) {
+            if (least == null || entry.getValue() < least.getValue()) {
+                least = entry;
+            }
+        }
+        int inherited = least.getValue();
+        row.remove(least.getKey());
+        row.put(neighbour, inherited + 1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.service;
+
+import com.example.demo.model.SalesDelta;
+import com.example.demo.repository.SalesDeltaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps {@code products.sold} up to date from placed, cancelled and deleted orders.
+ *
+ * Orders journal what they sold, or gave back, as {@link SalesDelta} rows in their own
+ * transaction. A periodic flush sums those per product and writes them as one JDBC batch of
+ * {@code sold = sold + ?} updates, in product id order, instead of one UPDATE per order line,
+ * deleting the rows it applied in the same transaction. A failed flush leaves them for the next.
+ */
+@Component
+public class ProductSalesRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSalesRecorder.class);
+    // Also bumps the version and timestamp that conditional GETs are answered from; never below zero
+    private static final String INCREMENT_SQL =
+            "UPDATE products SET sold = CASE WHEN sold + ? > 0 THEN sold + ? ELSE 0 END, version = version + 1, "
+                    + "updated_at = ? WHERE id = ?";
+
+    private final SalesDeltaRepository salesDeltaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductService productService;
+    private final int flushBatchSize;
+
+    public ProductSalesRecorder(SalesDeltaRepository salesDeltaRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ProductService productService,
+                                @Value("${app.bestsellers.flush-batch-size:1000}") int flushBatchSize) {
+        this.salesDeltaRepository = salesDeltaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productService = productService;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    /**
+     * Journals units sold per product, negative for units given back, in the caller's transaction.
+     */
+    public void record(Map<Long, Integer> quantitiesByProductId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SalesDelta> deltas = new ArrayList<>(quantitiesByProductId.size());
+        quantitiesByProductId.forEach((productId, quantity) -> {
+            if (quantity != 0) {
+                deltas.add(SalesDelta.builder()
+                        .productId(productId)
+                        .quantity(quantity)
+                        .createdAt(now)
+                        .build());
+            }
+        });
+        if (!deltas.isEmpty()) {
+            salesDeltaRepository.saveAll(deltas);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.bestsellers.flush-interval:PT5S}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<SalesDelta> rows;
+        do {
+            rows = salesDeltaRepository.findAllByOrderByIdAsc(PageRequest.of(0, flushBatchSize));
+            if (rows.isEmpty()) {
+                return;
+            }
+            // Ascending ids so concurrent writers lock product rows in the same order
+            Map<Long, Integer> deltas = new TreeMap<>();
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (SalesDelta row : rows) {
+                deltas.merge(row.getProductId(), row.getQuantity(), Integer::sum);
+                ids.add(row.getId());
+            }
+
+            Timestamp now = Timestamp.from(Instant.now());
+            List<Object[]> batch = new ArrayList<>(deltas.size());
+            deltas.forEach((productId, quantity) -> batch.add(new Object[]{quantity, quantity, now, productId}));
+            try {
+                // Exactly the rows read: deltas committed meanwhile wait for the next round
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INCREMENT_SQL, batch);
+                    salesDeltaRepository.deleteAllByIdInBatch(ids);
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Could not write sales of {} products, retrying on the next flush: {}", deltas.size(), e.getMessage());
+                return;
+            }
+            productService.refreshReadModels(deltas.keySet());
+        } while (rows.size() == flushBatchSize);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over product name, brand and description ranked with BM25.
+ *
+ * Fields are weighted (name > brand > description) before BM25 saturation. Every query token
+ * must match; the last token also matches as a prefix so results appear while the user types.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float NAME_WEIGHT = 3f;
+    private static final float BRAND_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_MATCH_FACTOR = 0.8f;
+
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    private final Map<Long, Float> documentLengths = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private double totalLength;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild(Collection<ProductDto> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            documentLengths.clear();
+            totalLength = 0;
+            for (ProductDto product : products) {
+                addDocument(product);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            addDocument(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all matching products, best match first.
+     */
+    public List<Long> search(String query) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 0 : totalLength / documentCount;
+            Map<Long, Double> scores = null;
+
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean prefix = i == tokens.size() - 1;
+                Map<Long, Double> clause = scoreClause(tokens.get(i), prefix, documentCount, averageLength);
+                if (scores == null) {
+                    scores = clause;
+                } else {
+                    scores.keySet().retainAll(clause.keySet());
+                    scores.replaceAll((id, score) -> score + clause.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            return ranked.stream().map(Map.Entry::getKey).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreClause(String token, boolean prefix, int documentCount, double averageLength) {
+        Map<String, Map<Long, Float>> terms = prefix
+                ? postings.subMap(token, true, token + Character.MAX_VALUE, false)
+                : (postings.containsKey(token) ? Map.of(token, postings.get(token)) : Map.of());
+
+        Map<Long, Double> clause = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Float>> term : terms.entrySet()) {
+            Map<Long, Float> docs = term.getValue();
+            double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+            double factor = term.getKey().equals(token) ? 1 : PREFIX_MATCH_FACTOR;
+            for (Map.Entry<Long, Float> posting : docs.entrySet()) {
+                double frequency = posting.getValue();
+                double norm = averageLength == 0 ? 1 : documentLengths.get(posting.getKey()) / averageLength;
+                double score = factor * idf * (frequency * (K1 + 1)) / (frequency + K1 * (1 - B + B * norm));
+                clause.merge(posting.getKey(), score, Math::max);
+            }
+        }
+        return clause;
+    }
+
+    private void addDocument(ProductDto product) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = addField(frequencies, product.getName(), NAME_WEIGHT)
+                + addField(frequencies, product.getBrand(), BRAND_WEIGHT)
+                + addField(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+        if (frequencies.isEmpty()) {
+            return;
+        }
+        documents.put(product.getId(), frequencies);
+        documentLengths.put(product.getId(), length);
+        totalLength += length;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(product.getId(), entry.getValue());
+        }
+    }
+
+    private float addField(Map<String, Float> frequencies, String text, float weight) {
+        List<String> tokens = TextNormalizer.tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private void removeDocument(Long id) {
+        Map<String, Float> frequencies = documents.remove(id);
+        if (frequencies == null) {
+            return;
+        }
+        totalLength -= documentLengths.remove(id);
+        for (String term : frequencies.keySet()) {
+            Map<Long, Float> docs = postings.get(term);
+            docs.remove(id);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPageDto;
+import com.example.demo.dto.EntityVersionDto;
+import com.example.demo.dto.ProductBatchDto;
 import com.example.demo.dto.ProductDto;
+import com.example.demo.dto.ProductFacetsDto;
+import com.example.demo.dto.SuggestionDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductService {
     ProductDto createProduct(ProductDto productDto);
     ProductDto getProductById(Long id);
+    ProductBatchDto getProductsByIds(List<Long> ids);
+    EntityVersionDto getProductVersion(Long id);
+    Long getCatalogVersion();
     Page<ProductDto> getAllProducts(Pageable pageable);
     ProductDto updateProduct(Long id, ProductDto productDto);
     void deleteProduct(Long id);
@@ -21,5 +30,33 @@ public interface ProductService {
             Double maxPrice,
             Pageable pageable
     );
+    ProductFacetsDto getProductFacets(
+            String name,
+            String categoryId,
+            String brand,
+            String color,
+            Double minPrice,
+            Double maxPrice
+    );
     List<ProductDto> getAllProductsList(); 
+    void loadCatalogIndex();
+    void refreshReadModels(Collection<Long> productIds);
+    void indexProducts(Collection<Long> productIds);
+    void reconcileReadModels();
+    Page<ProductDto> searchProducts(String query, Pageable pageable);
+    List<SuggestionDto> suggestProducts(String prefix, int limit);
+    List<ProductDto> getRelatedProducts(Long id, int limit);
+    List<ProductDto> getBestsellers(Long categoryId, int limit);
+    CursorPageDto<ProductDto> scrollProducts(
+            String cursor,
+            int size,
+            String sortBy,
+            String sortDirection,
+            String name,
+            String categoryId,
+            String brand,
+            String color,
+            Double minPrice,
+            Double maxPrice
+    );
 }
@@ -1,6 +1,13 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CategoryDto;
+import com.example.demo.dto.CursorPageDto;
+import com.example.demo.dto.EntityVersionDto;
+import com.example.demo.dto.ProductBatchDto;
 import com.example.demo.dto.ProductDto;
+import com.example.demo.dto.ProductFacetsDto;
+import com.example.demo.dto.SuggestionDto;
+import com.example.demo.exception.InvalidCursorException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Category;
 import com.example.demo.model.Product;
@@ -12,33 +19,175 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.io.File;
+import java.util.stream.Stream;
 import java.io.IOException;
-import java.util.UUID;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 @Service
 public class ProductServiceImpl implements ProductService {
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
+    private static final Set<String> SCROLL_SORT_PROPERTIES = Set.of("id", "price", "name", "sold");
+    private static final int MAX_BESTSELLERS = 100;
+    // Stays under SQL Server's limit of 2100 parameters per statement
+    private static final int MAX_IDS_PER_QUERY = 1000;
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
-    private final String uploadDir;
+    private final CategoryCatalog categoryCatalog;
+    private final ProductCatalogIndex catalogIndex;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductRecommendationIndex recommendationIndex;
+    private final ProductBestsellerIndex bestsellerIndex;
+    private final ProductDetailCache productDetailCache;
+    private final ProductImageProcessor imageProcessor;
+    private final ProductImageStore imageStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BigDecimal[] priceBuckets;
     
     public ProductServiceImpl(ProductRepository productRepository, 
                             CategoryRepository categoryRepository,
-                            @Value("${app.upload.dir}") String uploadDir) {
+                            CategoryCatalog categoryCatalog,
+                            ProductCatalogIndex catalogIndex,
+                            ProductSearchIndex searchIndex,
+                            ProductSuggestIndex suggestIndex,
+                            ProductRecommendationIndex recommendationIndex,
+                            ProductBestsellerIndex bestsellerIndex,
+                            ProductDetailCache productDetailCache,
+                            ProductImageProcessor imageProcessor,
+                            ProductImageStore imageStore,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${app.catalog.price-buckets:}") BigDecimal[] priceBuckets) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
-        this.uploadDir = uploadDir;
+        this.categoryCatalog = categoryCatalog;
+        this.catalogIndex = catalogIndex;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.recommendationIndex = recommendationIndex;
+        this.bestsellerIndex = bestsellerIndex;
+        this.productDetailCache = productDetailCache;
+        this.imageProcessor = imageProcessor;
+        this.imageStore = imageStore;
+        this.eventPublisher = eventPublisher;
+        this.priceBuckets = priceBuckets;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadCatalogIndex() {
+        try {
+            List<ProductDto> products = productRepository.findProductDtos(null, Sort.unsorted());
+            catalogIndex.rebuild(products);
+            searchIndex.rebuild(products);
+            bestsellerIndex.rebuild(products);
+            suggestIndex.rebuild(products, categoryCatalog.all().stream()
+                    .collect(Collectors.toMap(CategoryDto::getId, CategoryDto::getName)));
+            logger.info("Loaded {} products into the catalog, search and suggest indexes", products.size());
+        } catch (RuntimeException e) {
+            logger.error("Could not load the catalog indexes, filtering and search will use the database", e);
+        }
+    }
+
+    private void refreshReadModels(ProductDto productDto) {
+        catalogIndex.upsert(productDto);
+        searchIndex.upsert(productDto);
+        suggestIndex.upsert(productDto);
+        bestsellerIndex.upsert(productDto);
+        productDetailCache.invalidate(productDto.getId());
+    }
+
+    @Override
+    public void refreshReadModels(Collection<Long> productIds) {
+        refreshReadModels(productIds, false);
+    }
+
+    // For products written outside this service, such as by an import: their text is new to the search index
+    @Override
+    public void indexProducts(Collection<Long> productIds) {
+        refreshReadModels(productIds, true);
+    }
+
+    // Stock and sales changes leave the searchable text alone, so only a reconcile reindexes it
+    private void refreshReadModels(Collection<Long> productIds, boolean includeSearch) {
+        List<Long> ids = new ArrayList<>(productIds);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+            Specification<Product> byIds = (root, criteriaQuery, criteriaBuilder) -> root.get("id").in(chunk);
+            List<ProductDto> productDtos = productRepository.findProductDtos(byIds, Sort.unsorted());
+            catalogIndex.upsertAll(productDtos);
+            for (ProductDto productDto : productDtos) {
+                if (includeSearch) {
+                    searchIndex.upsert(productDto);
+                }
+                suggestIndex.upsert(productDto);
+                bestsellerIndex.upsert(productDto);
+                productDetailCache.invalidate(productDto.getId());
+            }
+        }
+    }
+
+    /**
+     * Compares the version of every indexed product with the database and reloads the products
+     * that were created or changed elsewhere (another instance, a script), and drops the deleted
+     * ones. Only (id, version) is read unless something differs.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval:PT1M}")
+    public void reconcileReadModels() {
+        if (!catalogIndex.isReady()) {
+            return;
+        }
+        try {
+            // Taken before the query: a product created meanwhile is not mistaken for a deleted one
+            Map<Long, Long> indexed = catalogIndex.versions();
+            List<Long> changed = new ArrayList<>();
+            for (Object[] row : productRepository.findAllVersions()) {
+                Long id = (Long) row[0];
+                if (!Objects.equals(indexed.remove(id), row[1])) {
+                    changed.add(id);
+                }
+            }
+            // What is left is no longer in the database
+            indexed.keySet().forEach(this::evictReadModels);
+            refreshReadModels(changed, true);
+            if (!changed.isEmpty() || !indexed.isEmpty()) {
+                logger.info("Reconciled the product indexes: {} changed, {} deleted", changed.size(), indexed.size());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not reconcile the product indexes, keeping the current ones: {}", e.getMessage());
+        }
+    }
+
+    private void evictReadModels(Long id) {
+        catalogIndex.remove(id);
+        searchIndex.remove(id);
+        suggestIndex.remove(id);
+        recommendationIndex.remove(id);
+        bestsellerIndex.remove(id);
+        productDetailCache.invalidate(id);
     }
 
     private String[] saveImages(MultipartFile[] images) {
@@ -50,14 +199,7 @@ public class ProductServiceImpl implements ProductService {
         for (MultipartFile image : images) {
             if (image != null && !image.isEmpty()) {
                 try {
-                    String fileName = UUID.randomUUID().toString() + "_" + image.getOriginalFilename();
-                    File uploadDir = new File("src/main/resources/static/images/products");
-                    if (!uploadDir.exists()) {
-                        uploadDir.mkdirs();
-                    }
-                    File destFile = new File(uploadDir.getAbsolutePath() + File.separator + fileName);
-                    image.transferTo(destFile);
-                    imageUrls.add("/images/products/" + fileName);
+                    imageUrls.add(imageStore.store(image));
                 } catch (IOException e) {
                     logger.error("Could not save image file: " + image.getOriginalFilename(), e);
                 }
@@ -66,11 +208,110 @@ public class ProductServiceImpl implements ProductService {
         return imageUrls.toArray(new String[0]);
     }
 
+    // Originals are stored first so the request can return; resized variants replace them when ready
+    private void scheduleImageVariants(Long productId, String[] imageUrls) {
+        List<Path> originals = new ArrayList<>();
+        for (String imageUrl : imageUrls) {
+            Path original = imageStore.resolve(imageUrl);
+            if (original == null) {
+                return;
+            }
+            originals.add(original);
+        }
+        if (!originals.isEmpty()) {
+            imageProcessor.submit(originals, variants -> applyImageVariants(productId, imageUrls, variants));
+        }
+    }
+
+    private void applyImageVariants(Long productId, String[] originalUrls,
+                                    List<ProductImageProcessor.ImageVariants> variants) {
+        Product product = productRepository.findById(productId).orElse(null);
+        if (product == null || !Arrays.equals(product.getImages(), originalUrls)) {
+            // Deleted or given new images while the variants were being generated
+            variants.stream()
+                    .filter(ProductImageProcessor.ImageVariants::isResized)
+                    .flatMap(variant -> Stream.of(variant.getMedium(), variant.getThumbnail()))
+                    .forEach(this::deleteQuietly);
+            return;
+        }
+
+        String[] mediumUrls = originalUrls.clone();
+        String[] thumbnailUrls = originalUrls.clone();
+        List<String> storedUrls = new ArrayList<>();
+        List<String> replacedUrls = new ArrayList<>();
+        try {
+            for (int i = 0; i < variants.size(); i++) {
+                ProductImageProcessor.ImageVariants variant = variants.get(i);
+                if (variant.isResized()) {
+                    mediumUrls[i] = imageStore.store(variant.getMedium());
+                    storedUrls.add(mediumUrls[i]);
+                    thumbnailUrls[i] = imageStore.store(variant.getThumbnail());
+                    storedUrls.add(thumbnailUrls[i]);
+                    // The images and thumbnails slots each held a reference to the original
+                    replacedUrls.add(originalUrls[i]);
+                    replacedUrls.add(originalUrls[i]);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Could not store image variants for product {}", productId, e);
+            discardImageVariants(storedUrls, variants);
+            return;
+        }
+        product.setImages(mediumUrls);
+        product.setThumbnails(thumbnailUrls);
+        Product savedProduct;
+        try {
+            savedProduct = productRepository.save(product);
+        } catch (RuntimeException e) {
+            // Usually an edit committed while the variants were being generated; it keeps its images
+            logger.warn("Could not save image variants for product {}, discarding them: {}", productId, e.getMessage());
+            discardImageVariants(storedUrls, variants);
+            return;
+        }
+        refreshReadModels(convertToDto(savedProduct));
+        imageStore.release(replacedUrls.toArray(new String[0]));
+    }
+
+    // Releasing the stored variants deletes their files once nothing else refers to them
+    private void discardImageVariants(List<String> storedUrls, List<ProductImageProcessor.ImageVariants> variants) {
+        imageStore.release(storedUrls.toArray(new String[0]));
+        variants.stream()
+                .filter(ProductImageProcessor.ImageVariants::isResized)
+                .flatMap(variant -> Stream.of(variant.getMedium(), variant.getThumbnail()))
+                .forEach(this::deleteQuietly);
+    }
+
+    // The new images hold one reference for the images slot and one for the thumbnails slot,
+    // taken before the save; a save that fails (validation, constraint, lost update) gives both back
+    private Product saveWithImages(Product product, String[] newImageUrls) {
+        try {
+            return productRepository.save(product);
+        } catch (RuntimeException e) {
+            imageStore.release(newImageUrls);
+            imageStore.release(newImageUrls);
+            throw e;
+        }
+    }
+
+    // Checked against the category catalogue; the product only needs a reference for its foreign key
+    private Category resolveCategory(Long categoryId) {
+        categoryCatalog.get(categoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", categoryId));
+        return categoryRepository.getReferenceById(categoryId);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete image file {}: {}", file, e.getMessage());
+        }
+    }
+
     @Override
     public ProductDto createProduct(ProductDto productDto) {
-        Category category = categoryRepository.findById(productDto.getCategoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", productDto.getCategoryId()));
-        
+        Category category = resolveCategory(productDto.getCategoryId());
+
         Product product = new Product();
         product.setName(productDto.getName());
         product.setDescription(productDto.getDescription());
@@ -80,37 +321,76 @@ public class ProductServiceImpl implements ProductService {
         product.setCategory(category);
         product.setStock(productDto.getStock());
 
+        String[] imageUrls = saveImages(productDto.getImages());
         if (productDto.getImages() != null) {
-            String[] imageUrls = saveImages(productDto.getImages());
             product.setImages(imageUrls);
+            product.setThumbnails(imageUrls);
+            // The thumbnails slots reference the same files until the variants are ready
+            imageStore.retain(imageUrls);
         }
 
         product.setSold(0);
 
-        Product savedProduct = productRepository.save(product);
-        return convertToDto(savedProduct);
+        Product savedProduct = saveWithImages(product, imageUrls);
+        ProductDto savedProductDto = convertToDto(savedProduct);
+        refreshReadModels(savedProductDto);
+        scheduleImageVariants(savedProduct.getId(), imageUrls);
+        return savedProductDto;
     }
 
     @Override
     public ProductDto getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        return productDetailCache.get(id, key -> productRepository.findById(key)
+                .map(this::convertToDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", key)));
+    }
+
+    @Override
+    public ProductBatchDto getProductsByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        Map<Long, ProductDto> productsById = findProductDtos(distinctIds);
+        List<ProductDto> products = new ArrayList<>(productsById.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            ProductDto productDto = productsById.get(id);
+            if (productDto != null) {
+                products.add(productDto);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return ProductBatchDto.builder()
+                .products(products)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    /**
+     * Resolves the version of a product for conditional GETs: from the detail cache when the
+     * product is cached, otherwise with a query that reads only the version columns.
+     */
+    @Override
+    public EntityVersionDto getProductVersion(Long id) {
+        ProductDto cached = productDetailCache.getIfPresent(id);
+        if (cached != null) {
+            return new EntityVersionDto(cached.getVersion(), cached.getUpdatedAt());
+        }
+        return productRepository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-        return convertToDto(product);
+    }
+
+    @Override
+    public Long getCatalogVersion() {
+        return catalogIndex.isReady() ? catalogIndex.version() : null;
     }
 
     @Override
     public Page<ProductDto> getAllProducts(Pageable pageable) {
-        Page<Product> productPage = productRepository.findAll(pageable);
-        List<ProductDto> productDtos = productPage.getContent().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return new PageImpl<>(productDtos, pageable, productPage.getTotalElements());
+        return productRepository.findProductDtos(null, pageable);
     }
 
     public List<ProductDto> getAllProductsList() {
-        return productRepository.findAll().stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+        return productRepository.findProductDtos(null, Sort.by("id"));
     }
 
     @Override
@@ -135,30 +415,36 @@ public class ProductServiceImpl implements ProductService {
             product.setColor(productDto.getColor());
         }
         if (productDto.getCategoryId() != null) {
-            Category category = categoryRepository.findById(productDto.getCategoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", productDto.getCategoryId()));
-            product.setCategory(category);
+            product.setCategory(resolveCategory(productDto.getCategoryId()));
         }
+        int previousStock = product.getStock();
         if (productDto.getStock() >= 0) {
             product.setStock(productDto.getStock());
         }
 
+        String[] oldImages = null;
+        String[] oldThumbnails = null;
+        String[] imageUrls = new String[0];
         if (productDto.getImages() != null && productDto.getImages().length > 0) {
-            if (product.getImages() != null) {
-                for (String oldImage : product.getImages()) {
-                    String fileName = oldImage.substring(oldImage.lastIndexOf("/") + 1);
-                    File oldFile = new File(uploadDir + File.separator + fileName);
-                    if (oldFile.exists()) {
-                        oldFile.delete();
-                    }
-                }
-            }
-            String[] imageUrls = saveImages(productDto.getImages());
+            oldImages = product.getImages();
+            oldThumbnails = product.getThumbnails();
+            imageUrls = saveImages(productDto.getImages());
             product.setImages(imageUrls);
+            product.setThumbnails(imageUrls);
+            imageStore.retain(imageUrls);
         }
 
-        Product updatedProduct = productRepository.save(product);
-        return convertToDto(updatedProduct);
+        Product updatedProduct = saveWithImages(product, imageUrls);
+        if (updatedProduct.getStock() != previousStock) {
+            eventPublisher.publishEvent(new ProductStockChangedEvent(id, updatedProduct.getStock() - previousStock));
+        }
+        // Old files are only deleted once no other product slot references them
+        imageStore.release(oldImages);
+        imageStore.release(oldThumbnails);
+        ProductDto updatedProductDto = convertToDto(updatedProduct);
+        refreshReadModels(updatedProductDto);
+        scheduleImageVariants(updatedProduct.getId(), imageUrls);
+        return updatedProductDto;
     }
 
     @Override
@@ -166,13 +452,172 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         productRepository.delete(product);
+        imageStore.release(product.getImages());
+        imageStore.release(product.getThumbnails());
+        evictReadModels(id);
     }
 
     @Override
     public Page<ProductDto> getProductsByCriteria(
             String name, String categoryId, String brand, String color,
             Double minPrice, Double maxPrice, Pageable pageable) {
-        Specification<Product> spec = (root, query, criteriaBuilder) -> {
+        if (catalogIndex.canServe(pageable)) {
+            Long category = categoryId != null && !categoryId.isEmpty() ? Long.parseLong(categoryId) : null;
+            return catalogIndex.filter(name, category, brand, color, minPrice, maxPrice, pageable);
+        }
+
+        Specification<Product> spec = criteriaSpecification(name, categoryId, brand, color, minPrice, maxPrice);
+
+        return productRepository.findProductDtos(spec, pageable);
+    }
+
+    @Override
+    public ProductFacetsDto getProductFacets(
+            String name, String categoryId, String brand, String color,
+            Double minPrice, Double maxPrice) {
+        if (catalogIndex.isReady()) {
+            Long category = categoryId != null && !categoryId.isEmpty() ? Long.parseLong(categoryId) : null;
+            return catalogIndex.facets(name, category, brand, color, minPrice, maxPrice, priceBuckets);
+        }
+
+        FacetCounter counter = new FacetCounter(priceBuckets);
+        productRepository.findProductDtos(criteriaSpecification(name, categoryId, brand, color, minPrice, maxPrice), Sort.unsorted())
+                .forEach(counter::add);
+        return counter.result();
+    }
+
+    @Override
+    public Page<ProductDto> searchProducts(String query, Pageable pageable) {
+        if (!searchIndex.isReady()) {
+            return getProductsByCriteria("%" + query + "%", null, null, null, null, null, pageable);
+        }
+
+        List<Long> rankedIds = searchIndex.search(query);
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        List<ProductDto> productDtos = findProductDtosInOrder(rankedIds.subList(from, to));
+        return new PageImpl<>(productDtos, pageable, rankedIds.size());
+    }
+
+    @Override
+    public List<ProductDto> getBestsellers(Long categoryId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_BESTSELLERS));
+        if (bestsellerIndex.isReady()) {
+            return findProductDtosInOrder(bestsellerIndex.top(categoryId, size));
+        }
+
+        Specification<Product> spec = (root, query, criteriaBuilder) -> categoryId == null
+                ? null
+                : criteriaBuilder.equal(root.get("category").get("id"), categoryId);
+        return productRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Order.desc("sold"), Sort.Order.asc("id")))
+                .limit(size)
+                .all())
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ProductDto> getRelatedProducts(Long id, int limit) {
+        return findProductDtosInOrder(recommendationIndex.related(id, limit));
+    }
+
+    // Ids that no longer exist are skipped
+    private List<ProductDto> findProductDtosInOrder(List<Long> ids) {
+        Map<Long, ProductDto> productsById = findProductDtos(ids);
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Detail cache first, then the catalog index; whatever is left is read with one query per chunk
+    private Map<Long, ProductDto> findProductDtos(List<Long> ids) {
+        Map<Long, ProductDto> productsById = new HashMap<>();
+        List<Long> unresolved = new ArrayList<>();
+        for (Long id : ids) {
+            ProductDto productDto = productDetailCache.getIfPresent(id);
+            if (productDto == null) {
+                productDto = catalogIndex.get(id).orElse(null);
+            }
+            if (productDto != null) {
+                productsById.put(id, productDto);
+            } else {
+                unresolved.add(id);
+            }
+        }
+        for (int from = 0; from < unresolved.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = unresolved.subList(from, Math.min(from + MAX_IDS_PER_QUERY, unresolved.size()));
+            Specification<Product> byIds = (root, criteriaQuery, criteriaBuilder) -> root.get("id").in(chunk);
+            productRepository.findProductDtos(byIds, Sort.unsorted())
+                    .forEach(productDto -> productsById.put(productDto.getId(), productDto));
+        }
+        return productsById;
+    }
+
+    @Override
+    public List<SuggestionDto> suggestProducts(String prefix, int limit) {
+        return suggestIndex.suggest(prefix, Math.min(limit, suggestIndex.getMaxSuggestions()));
+    }
+
+    @Override
+    public CursorPageDto<ProductDto> scrollProducts(
+            String cursor, int size, String sortBy, String sortDirection,
+            String name, String categoryId, String brand, String color,
+            Double minPrice, Double maxPrice) {
+        if (!SCROLL_SORT_PROPERTIES.contains(sortBy)) {
+            throw new InvalidCursorException("Cannot scroll products by " + sortBy);
+        }
+        Sort.Direction direction = KeysetCursor.direction(sortDirection);
+        int pageSize = KeysetCursor.pageSize(size);
+        Specification<Product> spec = criteriaSpecification(name, categoryId, brand, color, minPrice, maxPrice);
+        if (cursor != null && !cursor.isEmpty()) {
+            spec = spec.and(KeysetCursor.decode(cursor, sortBy, direction)
+                    .toSpecification(value -> parseScrollValue(sortBy, value)));
+        }
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        Sort sort = KeysetCursor.sort(sortBy, direction);
+        List<Product> products = productRepository.findBy(spec, query -> query.sortBy(sort).limit(pageSize + 1).all());
+        boolean hasNext = products.size() > pageSize;
+        List<Product> pageProducts = hasNext ? products.subList(0, pageSize) : products;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = pageProducts.get(pageProducts.size() - 1);
+            nextCursor = KeysetCursor.encode(sortBy, direction, scrollValue(last, sortBy), last.getId());
+        }
+        return CursorPageDto.<ProductDto>builder()
+                .content(pageProducts.stream().map(this::convertToDto).collect(Collectors.toList()))
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static String scrollValue(Product product, String sortBy) {
+        return switch (sortBy) {
+            case "price" -> product.getPrice().toPlainString();
+            case "name" -> product.getName();
+            case "sold" -> String.valueOf(product.getSold());
+            default -> String.valueOf(product.getId());
+        };
+    }
+
+    private static Comparable<?> parseScrollValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "price" -> new BigDecimal(value);
+            case "name" -> value;
+            case "sold" -> Integer.valueOf(value);
+            default -> Long.valueOf(value);
+        };
+    }
+
+    private Specification<Product> criteriaSpecification(
+            String name, String categoryId, String brand, String color,
+            Double minPrice, Double maxPrice) {
+        return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
             if (name != null && !name.isEmpty()) {
                 predicates.add(criteriaBuilder.like(root.get("name"), name));
@@ -194,12 +639,6 @@ public class ProductServiceImpl implements ProductService {
             }
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
-
-        Page<Product> productPage = productRepository.findAll(spec, pageable);
-        List<ProductDto> productDtos = productPage.getContent().stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
-        return new PageImpl<>(productDtos, pageable, productPage.getTotalElements());
     }
 
     private ProductDto convertToDto(Product product) {
@@ -213,7 +652,10 @@ public class ProductServiceImpl implements ProductService {
             .categoryId(product.getCategory().getId())
             .stock(product.getStock())
             .imageUrls(product.getImages())
+            .thumbnailUrls(product.getThumbnails())
             .sold(product.getSold())
+            .version(product.getVersion())
+            .updatedAt(product.getUpdatedAt())
             .build();
         return dto;
     }
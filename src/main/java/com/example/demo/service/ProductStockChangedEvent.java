@@ -0,0 +1,23 @@
+package com.example.demo.service;
+
+/**
+ * Published by {@link ProductServiceImpl#updateProduct} when an admin sets a product's stock, with
+ * the change from the stock it had before. Flash-sale counters apply the same change.
+ */
+public final class ProductStockChangedEvent {
+    private final Long productId;
+    private final int delta;
+
+    public ProductStockChangedEvent(Long productId, int delta) {
+        this.productId = productId;
+        this.delta = delta;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+}
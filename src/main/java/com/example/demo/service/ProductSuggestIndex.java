@@ -0,0 +1,479 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductDto;
+import com.example.demo.dto.SuggestionDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over product names, brands and category names.
+ *
+ * Every suggestion is stored in a radix trie under its folded text and under each later word,
+ * so "air" finds "Nike Air Max". Each trie node keeps the best suggestions of its subtree
+ * (ranked by units sold; brands and categories by the units sold of their products), so a
+ * lookup is a walk down the prefix with no subtree scan. Updates only recompute the nodes on
+ * the changed paths.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingLong((Suggestion s) -> s.weight)
+            .reversed()
+            .thenComparing(s -> s.text, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(s -> s.key);
+
+    private final int maxSuggestions;
+    private final Node root = new Node("");
+    private final Map<Long, IndexedProduct> products = new HashMap<>();
+    private final Map<String, Aggregate> brands = new HashMap<>();
+    private final Map<Long, Aggregate> categories = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public ProductSuggestIndex(@Value("${app.suggest.max-results:10}") int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getMaxSuggestions() {
+        return maxSuggestions;
+    }
+
+    public void rebuild(Collection<ProductDto> all, Map<Long, String> categoryNames) {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.entries = null;
+            products.clear();
+            brands.clear();
+            categories.clear();
+
+            for (Map.Entry<Long, String> category : categoryNames.entrySet()) {
+                categories.put(category.getKey(), new Aggregate(category.getValue()));
+            }
+            for (ProductDto product : all) {
+                IndexedProduct indexed = IndexedProduct.of(product);
+                products.put(indexed.id, indexed);
+                insertSuggestion(indexed.suggestion, false);
+                if (indexed.brandKey != null) {
+                    Aggregate brand = brands.computeIfAbsent(indexed.brandKey, key -> new Aggregate(indexed.brand));
+                    brand.count++;
+                    brand.weight += indexed.sold;
+                }
+                Aggregate category = categories.get(indexed.categoryId);
+                if (category != null) {
+                    category.weight += indexed.sold;
+                }
+            }
+            brands.forEach((key, brand) -> {
+                brand.suggestion = new Suggestion(SuggestionType.BRAND, null, key, brand.text, brand.weight);
+                insertSuggestion(brand.suggestion, false);
+            });
+            categories.forEach((id, category) -> {
+                category.suggestion = new Suggestion(SuggestionType.CATEGORY, id, null, category.text, category.weight);
+                insertSuggestion(category.suggestion, false);
+            });
+            recomputeAll(root);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            IndexedProduct updated = IndexedProduct.of(product);
+            IndexedProduct previous = products.put(updated.id, updated);
+            if (previous != null) {
+                removeSuggestion(previous.suggestion);
+            }
+            insertSuggestion(updated.suggestion, true);
+
+            if (previous != null && Objects.equals(previous.brandKey, updated.brandKey)) {
+                adjustBrand(updated.brandKey, updated.brand, updated.sold - previous.sold, 0);
+            } else {
+                if (previous != null) {
+                    adjustBrand(previous.brandKey, previous.brand, -previous.sold, -1);
+                }
+                adjustBrand(updated.brandKey, updated.brand, updated.sold, 1);
+            }
+            if (previous != null && Objects.equals(previous.categoryId, updated.categoryId)) {
+                adjustCategory(updated.categoryId, updated.sold - previous.sold);
+            } else {
+                if (previous != null) {
+                    adjustCategory(previous.categoryId, -previous.sold);
+                }
+                adjustCategory(updated.categoryId, updated.sold);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            IndexedProduct previous = products.remove(id);
+            if (previous == null) {
+                return;
+            }
+            removeSuggestion(previous.suggestion);
+            adjustBrand(previous.brandKey, previous.brand, -previous.sold, -1);
+            adjustCategory(previous.categoryId, -previous.sold);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putCategory(Long id, String name) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            Aggregate category = categories.computeIfAbsent(id, key -> new Aggregate(name));
+            if (category.suggestion != null) {
+                removeSuggestion(category.suggestion);
+            }
+            category.text = name;
+            category.suggestion = new Suggestion(SuggestionType.CATEGORY, id, null, name, category.weight);
+            insertSuggestion(category.suggestion, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCategory(Long id) {
+        lock.writeLock().lock();
+        try {
+            Aggregate category = categories.remove(id);
+            if (category != null && category.suggestion != null) {
+                removeSuggestion(category.suggestion);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} (at most {@code app.suggest.max-results}) completions of the
+     * prefix, most popular first.
+     */
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String key = String.join(" ", TextNormalizer.tokenize(prefix));
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                Node child = node.children.get(key.charAt(position));
+                if (child == null) {
+                    return List.of();
+                }
+                int common = commonPrefixLength(child.label, key, position);
+                if (position + common < key.length() && common < child.label.length()) {
+                    return List.of();
+                }
+                node = child;
+                position += common;
+            }
+
+            int size = Math.min(limit, node.top.length);
+            List<SuggestionDto> suggestions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                suggestions.add(node.top[i].toDto());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void adjustBrand(String key, String text, long weightDelta, int countDelta) {
+        if (key == null) {
+            return;
+        }
+        Aggregate brand = brands.get(key);
+        if (brand == null) {
+            if (countDelta <= 0) {
+                return;
+            }
+            brand = new Aggregate(text);
+            brands.put(key, brand);
+        }
+        brand.count += countDelta;
+        brand.weight += weightDelta;
+        if (brand.count <= 0) {
+            brands.remove(key);
+            removeSuggestion(brand.suggestion);
+            return;
+        }
+        if (brand.suggestion != null && brand.suggestion.weight == brand.weight) {
+            return;
+        }
+        if (brand.suggestion != null) {
+            removeSuggestion(brand.suggestion);
+        }
+        brand.suggestion = new Suggestion(SuggestionType.BRAND, null, key, brand.text, brand.weight);
+        insertSuggestion(brand.suggestion, true);
+    }
+
+    private void adjustCategory(Long id, long weightDelta) {
+        Aggregate category = id == null ? null : categories.get(id);
+        if (category == null || weightDelta == 0) {
+            return;
+        }
+        category.weight += weightDelta;
+        removeSuggestion(category.suggestion);
+        category.suggestion = new Suggestion(SuggestionType.CATEGORY, id, null, category.text, category.weight);
+        insertSuggestion(category.suggestion, true);
+    }
+
+    private void insertSuggestion(Suggestion suggestion, boolean recompute) {
+        for (String key : suggestion.keys) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int position = 0;
+            while (position < key.length()) {
+                char first = key.charAt(position);
+                Node child = node.children.get(first);
+                if (child == null) {
+                    child = new Node(key.substring(position));
+                    node.children.put(first, child);
+                    position = key.length();
+                } else {
+                    int common = commonPrefixLength(child.label, key, position);
+                    if (common < child.label.length()) {
+                        // Split the edge; the new inner node covers the same subtree as before
+                        Node inner = new Node(child.label.substring(0, common));
+                        child.label = child.label.substring(common);
+                        inner.children.put(child.label.charAt(0), child);
+                        inner.top = child.top;
+                        node.children.put(first, inner);
+                        child = inner;
+                    }
+                    position += common;
+                }
+                node = child;
+                path.add(node);
+            }
+            if (node.entries == null) {
+                node.entries = new ArrayList<>(1);
+            }
+            node.entries.add(suggestion);
+            if (recompute) {
+                for (int i = path.size() - 1; i >= 0; i--) {
+                    recompute(path.get(i));
+                }
+            }
+        }
+    }
+
+    private void removeSuggestion(Suggestion suggestion) {
+        if (suggestion == null) {
+            return;
+        }
+        for (String key : suggestion.keys) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int position = 0;
+            while (position < key.length() && node != null) {
+                node = node.children.get(key.charAt(position));
+                if (node == null || !key.startsWith(node.label, position)) {
+                    node = null;
+                    break;
+                }
+                position += node.label.length();
+                path.add(node);
+            }
+            if (node == null || node.entries == null) {
+                continue;
+            }
+            node.entries.removeIf(entry -> entry.key.equals(suggestion.key));
+            if (node.entries.isEmpty()) {
+                node.entries = null;
+            }
+
+            // Drop empty leaves and merge pass-through nodes back into their only child
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node current = path.get(i);
+                if (current.entries != null) {
+                    continue;
+                }
+                if (current.children.isEmpty()) {
+                    path.get(i - 1).children.remove(current.label.charAt(0));
+                    path.remove(i);
+                } else if (current.children.size() == 1) {
+                    Node only = current.children.values().iterator().next();
+                    current.label = current.label + only.label;
+                    current.children.clear();
+                    current.children.putAll(only.children);
+                    current.entries = only.entries;
+                    current.top = only.top;
+                    if (i + 1 < path.size() && path.get(i + 1) == only) {
+                        path.remove(i + 1);
+                    }
+                }
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                recompute(path.get(i));
+            }
+        }
+    }
+
+    private void recomputeAll(Node node) {
+        for (Node child : node.children.values()) {
+            recomputeAll(child);
+        }
+        recompute(node);
+    }
+
+    private void recompute(Node node) {
+        List<Suggestion> candidates = new ArrayList<>();
+        if (node.entries != null) {
+            candidates.addAll(node.entries);
+        }
+        for (Node child : node.children.values()) {
+            for (Suggestion suggestion : child.top) {
+                candidates.add(suggestion);
+            }
+        }
+        candidates.sort(RANKING);
+        // The same suggestion can sit under several keys of one subtree ("air air max")
+        Set<String> seen = new HashSet<>();
+        List<Suggestion> top = new ArrayList<>(Math.min(maxSuggestions, candidates.size()));
+        for (Suggestion candidate : candidates) {
+            if (top.size() == maxSuggestions) {
+                break;
+            }
+            if (seen.add(candidate.key)) {
+                top.add(candidate);
+            }
+        }
+        node.top = top.toArray(new Suggestion[0]);
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private enum SuggestionType {
+        PRODUCT, BRAND, CATEGORY
+    }
+
+    private static final class Node {
+        private static final Suggestion[] NONE = new Suggestion[0];
+
+        String label;
+        final Map<Character, Node> children = new HashMap<>(4);
+        List<Suggestion> entries;
+        Suggestion[] top = NONE;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Suggestion {
+        final SuggestionType type;
+        final Long id;
+        final String key;
+        final String text;
+        final long weight;
+        final Set<String> keys;
+
+        Suggestion(SuggestionType type, Long id, String brandKey, String text, long weight) {
+            this.type = type;
+            this.id = id;
+            this.key = type == SuggestionType.BRAND ? "B:" + brandKey : type.name().charAt(0) + ":" + id;
+            this.text = text;
+            this.weight = weight;
+            this.keys = keysOf(text);
+        }
+
+        // The whole text plus every suffix starting at a word
+        private static Set<String> keysOf(String text) {
+            List<String> tokens = TextNormalizer.tokenize(text);
+            Set<String> keys = new LinkedHashSet<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+            }
+            return keys;
+        }
+
+        SuggestionDto toDto() {
+            return SuggestionDto.builder()
+                    .text(text)
+                    .type(type.name().toLowerCase(Locale.ROOT))
+                    .id(id)
+                    .weight(weight)
+                    .build();
+        }
+    }
+
+    private static final class Aggregate {
+        String text;
+        long weight;
+        int count;
+        Suggestion suggestion;
+
+        Aggregate(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class IndexedProduct {
+        final Long id;
+        final String brand;
+        final String brandKey;
+        final Long categoryId;
+        final long sold;
+        final Suggestion suggestion;
+
+        private IndexedProduct(ProductDto product) {
+            this.id = product.getId();
+            this.brand = product.getBrand();
+            String folded = String.join(" ", TextNormalizer.tokenize(product.getBrand()));
+            this.brandKey = folded.isEmpty() ? null : folded;
+            this.categoryId = product.getCategoryId();
+            this.sold = product.getSold();
+            this.suggestion = new Suggestion(SuggestionType.PRODUCT, id, null, product.getName(), sold);
+        }
+
+        static IndexedProduct of(ProductDto product) {
+            return new IndexedProduct(product);
+        }
+    }
+}
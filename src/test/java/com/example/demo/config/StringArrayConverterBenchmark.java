@@ -0,0 +1,103 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link StringArrayConverter} with the ObjectMapper-based converter it replaced.
+ *
+ * Not part of the test suite. Run after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)
+ * com.example.demo.config.StringArrayConverterBenchmark}; add {@code -prof gc} to the options
+ * below to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringArrayConverterBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int size;
+
+    private final StringArrayConverter converter = new StringArrayConverter();
+    private final JacksonStringArrayConverter jacksonConverter = new JacksonStringArrayConverter();
+    private String[] urls;
+    private String json;
+
+    @Setup
+    public void setup() {
+        urls = new String[size];
+        for (int i = 0; i < size; i++) {
+            urls[i] = "/images/products/2c/2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b98" + (10 + i) + ".jpg";
+        }
+        json = converter.convertToDatabaseColumn(urls);
+    }
+
+    @Benchmark
+    public String encode() {
+        return converter.convertToDatabaseColumn(urls);
+    }
+
+    @Benchmark
+    public String encodeJackson() {
+        return jacksonConverter.convertToDatabaseColumn(urls);
+    }
+
+    @Benchmark
+    public String[] decode() {
+        return converter.convertToEntityAttribute(json);
+    }
+
+    @Benchmark
+    public String[] decodeJackson() {
+        return jacksonConverter.convertToEntityAttribute(json);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StringArrayConverterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * The previous implementation, kept here as the baseline.
+     */
+    static class JacksonStringArrayConverter {
+        private static final ObjectMapper objectMapper = new ObjectMapper();
+
+        String convertToDatabaseColumn(String[] attribute) {
+            try {
+                return attribute == null ? "[]" : objectMapper.writeValueAsString(attribute);
+            } catch (JsonProcessingException e) {
+                return "[]";
+            }
+        }
+
+        String[] convertToEntityAttribute(String dbData) {
+            try {
+                return dbData == null || dbData.isEmpty() ? new String[0] : objectMapper.readValue(dbData, String[].class);
+            } catch (JsonProcessingException e) {
+                return new String[0];
+            }
+        }
+    }
+}
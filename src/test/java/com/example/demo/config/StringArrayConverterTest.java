@@ -0,0 +1,60 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class StringArrayConverterTest {
+
+    private final StringArrayConverter converter = new StringArrayConverter();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void givenUrls_whenConvertToDatabaseColumn_thenWritesSameJsonAsJackson() throws Exception {
+        String[] urls = {"/images/products/a.jpg", "quote\" back\\slash", "tab\tnew\nline\u0001", null, "ảnh-đẹp.jpg"};
+
+        String json = converter.convertToDatabaseColumn(urls);
+
+        assertEquals(objectMapper.writeValueAsString(urls), json);
+        assertArrayEquals(urls, converter.convertToEntityAttribute(json));
+    }
+
+    @Test
+    public void givenJacksonWrittenColumn_whenConvertToEntityAttribute_thenReadsEveryEscape() throws Exception {
+        String[] urls = {"a/b", "\"\\\b\f\n\r\t", "\u001f\u00e9\u4e2d", ""};
+        String json = objectMapper.writeValueAsString(urls);
+
+        assertArrayEquals(urls, converter.convertToEntityAttribute(json));
+        assertArrayEquals(new String[]{"/x", "é", "a b"},
+                converter.convertToEntityAttribute(" [ \"\\/x\" ,\"\\u00E9\",\n\"a b\" ] "));
+    }
+
+    @Test
+    public void givenEmptyOrMalformedColumn_whenConvertToEntityAttribute_thenReturnsEmptyArray() {
+        assertEquals("[]", converter.convertToDatabaseColumn(null));
+        assertEquals("[]", converter.convertToDatabaseColumn(new String[0]));
+        String[] empty = converter.convertToEntityAttribute(null);
+        assertEquals(0, empty.length);
+        assertSame(empty, converter.convertToEntityAttribute("[]"));
+        assertSame(empty, converter.convertToEntityAttribute(""));
+
+        assertEquals(0, converter.convertToEntityAttribute("[\"unterminated").length);
+        assertEquals(0, converter.convertToEntityAttribute("[\"a\" \"b\"]").length);
+        assertEquals(0, converter.convertToEntityAttribute("[\"bad \\x escape\"]").length);
+        assertEquals(0, converter.convertToEntityAttribute("[\"a\"] trailing").length);
+        assertEquals(0, converter.convertToEntityAttribute("{\"a\":1}").length);
+    }
+
+    @Test
+    public void givenManyElements_whenRoundTrip_thenKeepsOrder() {
+        String[] urls = new String[9];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = "/images/products/" + i + ".jpg";
+        }
+
+        assertArrayEquals(urls, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(urls)));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.ImageFileResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ImageControllerTest {
+
+    private static final String HASH = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path staticDir;
+
+    @TempDir
+    Path uploadDir;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        Files.createDirectories(uploadDir.resolve("2c"));
+        Files.writeString(uploadDir.resolve("2c").resolve(HASH + ".jpg"), "0123456789");
+        Files.writeString(staticDir.resolve("logo.png"), "logo");
+        ImageFileResolver resolver = new ImageFileResolver(uploadDir.toString(), staticDir.toString(), 100, Duration.ofMinutes(1));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ImageController(resolver)).build();
+    }
+
+    @Test
+    public void givenContentAddressedImage_whenGet_thenServesWithImmutableCachingAndHashEtag() throws Exception {
+        mockMvc.perform(get("/images/products/2c/" + HASH + ".jpg"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0123456789"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"));
+    }
+
+    @Test
+    public void givenMissingImage_whenStoredAfterA404_thenServedOnTheNextRequest() throws Exception {
+        mockMvc.perform(get("/images/logo-new.png"))
+                .andExpect(status().isNotFound());
+
+        Files.writeString(staticDir.resolve("logo-new.png"), "new");
+
+        mockMvc.perform(get("/images/logo-new.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("new"));
+    }
+
+    @Test
+    public void givenMatchingIfNoneMatch_whenGet_thenNotModified() throws Exception {
+        mockMvc.perform(get("/images/products/2c/" + HASH + ".jpg").header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void givenRange_whenGet_thenServesPartialContent() throws Exception {
+        mockMvc.perform(get("/images/products/2c/" + HASH + ".jpg").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("2345"))
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"));
+
+        mockMvc.perform(get("/images/products/2c/" + HASH + ".jpg").header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("789"));
+    }
+
+    @Test
+    public void givenStaleIfRange_whenGet_thenServesWholeFile() throws Exception {
+        mockMvc.perform(get("/images/products/2c/" + HASH + ".jpg")
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    public void givenRangeBeyondEnd_whenGet_thenRangeNotSatisfiable() throws Exception {
+        mockMvc.perform(get("/images/products/2c/" + HASH + ".jpg").header(HttpHeaders.RANGE, "bytes=20-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    public void givenStaticImageOrTraversal_whenGet_thenServesOnlyFilesUnderRoots() throws Exception {
+        mockMvc.perform(get("/images/logo.png"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"));
+        mockMvc.perform(get("/images/products/%2e%2e/%2e%2e/etc/passwd"))
+                .andExpect(status().isNotFound());
+    }
+}
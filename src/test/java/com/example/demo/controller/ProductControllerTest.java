@@ -0,0 +1,120 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CursorPageDto;
+import com.example.demo.dto.EntityVersionDto;
+import com.example.demo.dto.ProductDto;
+import com.example.demo.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductControllerTest {
+
+    private static final Instant UPDATED_AT = Instant.parse("2024-03-01T10:15:30Z");
+
+    @Mock
+    private ProductService productService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ProductController(productService)).build();
+    }
+
+    @Test
+    public void givenProduct_whenGet_thenServesVersionAsEtagAndLastModified() throws Exception {
+        when(productService.getProductById(1L)).thenReturn(ProductDto.builder()
+                .id(1L).name("Phone").version(3L).updatedAt(UPDATED_AT).build());
+
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Phone"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, UPDATED_AT.toEpochMilli()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    public void givenMatchingIfNoneMatch_whenGet_thenNotModifiedWithoutLoadingProduct() throws Exception {
+        when(productService.getProductVersion(1L)).thenReturn(new EntityVersionDto(3L, UPDATED_AT));
+
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(productService, never()).getProductById(1L);
+    }
+
+    @Test
+    public void givenStaleIfNoneMatch_whenGet_thenServesCurrentProduct() throws Exception {
+        when(productService.getProductVersion(1L)).thenReturn(new EntityVersionDto(4L, UPDATED_AT));
+        when(productService.getProductById(1L)).thenReturn(ProductDto.builder()
+                .id(1L).name("Phone").version(4L).updatedAt(UPDATED_AT).build());
+
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    public void givenScrollPage_whenEntryChanges_thenEtagFollowsThePageNotTheCatalog() throws Exception {
+        when(productService.scrollProducts(null, 20, "id", "asc", null, null, null, null, null, null))
+                .thenReturn(scrollPage(3L))
+                .thenReturn(scrollPage(3L))
+                .thenReturn(scrollPage(4L));
+
+        String etag = mockMvc.perform(get("/api/products/scroll"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/products/scroll").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products/scroll").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].version").value(4));
+
+        verify(productService, never()).getCatalogVersion();
+    }
+
+    @Test
+    public void givenUnchangedCatalog_whenGetBestsellers_thenNotModifiedByWeakEtag() throws Exception {
+        when(productService.getCatalogVersion()).thenReturn(42L);
+        when(productService.getBestsellers(null, 6)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/products/bestsellers").param("limit", "6"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"42\""))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+
+        mockMvc.perform(get("/api/products/bestsellers").param("limit", "6").header(HttpHeaders.IF_NONE_MATCH, "W/\"42\""))
+                .andExpect(status().isNotModified());
+
+        verify(productService).getBestsellers(null, 6);
+    }
+
+    private static CursorPageDto<ProductDto> scrollPage(long version) {
+        return CursorPageDto.<ProductDto>builder()
+                .content(List.of(ProductDto.builder().id(1L).name("Phone").version(version).build()))
+                .size(1)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Category;
+import com.example.demo.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryCatalogTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private CategoryCatalog categoryCatalog;
+
+    @BeforeEach
+    public void setup() {
+        categoryCatalog = new CategoryCatalog(categoryRepository);
+        when(categoryRepository.findAll()).thenReturn(List.of(category(2L, "Laptops", 0L), category(1L, "Phones", 0L)));
+    }
+
+    @Test
+    public void givenCategories_whenLookedUpRepeatedly_thenLoadsOnceAndServesByIdAndName() {
+        assertEquals("Laptops", categoryCatalog.get(2L).orElseThrow().getName());
+        assertEquals(1L, categoryCatalog.findByName("phones").orElseThrow().getId());
+        assertEquals(1L, categoryCatalog.findByName(" PHONES ").orElseThrow().getId());
+        assertTrue(categoryCatalog.findByName("Tablets").isEmpty());
+        assertEquals(List.of(1L, 2L), categoryCatalog.all().stream().map(dto -> dto.getId()).toList());
+
+        verify(categoryRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void givenRenamedCategory_whenPut_thenNewSnapshotWithHigherVersion() {
+        long before = categoryCatalog.version();
+
+        categoryCatalog.put(category(1L, "Smartphones", 1L));
+
+        assertTrue(categoryCatalog.version() > before);
+        assertTrue(categoryCatalog.findByName("Phones").isEmpty());
+        assertEquals(1L, categoryCatalog.findByName("Smartphones").orElseThrow().getId());
+        assertEquals(1L, categoryCatalog.version(1L).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void givenDeletedCategory_whenRemove_thenGone() {
+        long before = categoryCatalog.version();
+
+        categoryCatalog.remove(2L);
+
+        assertNotEquals(before, categoryCatalog.version());
+        assertTrue(categoryCatalog.get(2L).isEmpty());
+        assertEquals(1, categoryCatalog.all().size());
+    }
+
+    @Test
+    public void givenUnchangedTable_whenReload_thenKeepsVersion() {
+        long before = categoryCatalog.version();
+
+        categoryCatalog.reload();
+        assertEquals(before, categoryCatalog.version());
+
+        when(categoryRepository.findAll()).thenReturn(List.of(category(1L, "Phones", 0L)));
+        categoryCatalog.reload();
+        assertNotEquals(before, categoryCatalog.version());
+        assertTrue(categoryCatalog.get(2L).isEmpty());
+    }
+
+    private static Category category(Long id, String name, Long version) {
+        return Category.builder().id(id).name(name).version(version).build();
+    }
+}
@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 
 @ExtendWith(MockitoExtension.class)
 public class CategoryServiceImplTest {
@@ -26,6 +27,12 @@ public class CategoryServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CategoryCatalog categoryCatalog;
+
+    @Mock
+    private ProductSuggestIndex suggestIndex;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -52,21 +59,23 @@ public class CategoryServiceImplTest {
 
         assertEquals(category.getId(), savedCategoryDto.getId());
         assertEquals(category.getName(), savedCategoryDto.getName());
+        verify(categoryCatalog).put(category);
     }
 
     @Test
-    public void givenCategoryId_whenGetCategoryById_thenReturnCategoryDto() {
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+    public void givenCategoryId_whenGetCategoryById_thenReturnCategoryDtoFromCatalog() {
+        when(categoryCatalog.get(1L)).thenReturn(Optional.of(CategoryDto.builder().id(1L).name("Test Category").build()));
 
         CategoryDto retrievedCategoryDto = categoryService.getCategoryById(1L);
 
         assertEquals(category.getId(), retrievedCategoryDto.getId());
         assertEquals(category.getName(), retrievedCategoryDto.getName());
+        verify(categoryRepository, never()).findById(1L);
     }
 
     @Test
     public void givenNonExistingCategoryId_whenGetCategoryById_thenThrowsResourceNotFoundException() {
-        when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(categoryCatalog.get(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> categoryService.getCategoryById(1L));
     }
@@ -88,6 +97,7 @@ public class CategoryServiceImplTest {
 
         assertEquals(1L, resultDto.getId());
         assertEquals("Updated Category", resultDto.getName());
+        verify(categoryCatalog).put(updatedCategory);
     }
 
     @Test
@@ -97,6 +107,7 @@ public class CategoryServiceImplTest {
         categoryService.deleteCategory(1L);
 
         verify(categoryRepository, times(1)).delete(category);
+        verify(categoryCatalog).remove(1L);
     }
 
     @Test
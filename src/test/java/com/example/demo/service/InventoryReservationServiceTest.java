@@ -0,0 +1,278 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ReservationDto;
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.exception.ReservationLimitExceededException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.FlashSale;
+import com.example.demo.model.Product;
+import com.example.demo.model.StockDeduction;
+import com.example.demo.repository.FlashSaleRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.StockDeductionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryReservationServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private FlashSaleRepository flashSaleRepository;
+
+    @Mock
+    private StockDeductionRepository stockDeductionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductService productService;
+
+    private InventoryReservationService reservationService;
+
+    @BeforeEach
+    public void setup() {
+        reservationService = new InventoryReservationService(productRepository, flashSaleRepository,
+                stockDeductionRepository, jdbcTemplate, transactionManager, productService, Duration.ofMinutes(10), 2, 1);
+    }
+
+    @Test
+    public void givenPendingDeductions_whenActivate_thenCounterStartsFromStockMinusThem() {
+        activate(1L, 100, 30);
+
+        assertEquals(70, reservationService.getFlashSales().get(0).getAvailable());
+        verify(flashSaleRepository).save(any(FlashSale.class));
+    }
+
+    @Test
+    public void givenManyConcurrentBuyers_whenReserveAndOrder_thenExactlyTheStockIsHandedOut() throws Exception {
+        int stock = 1000;
+        activate(1L, stock, 0);
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String buyer = "buyer" + t;
+            results.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int granted = 0;
+                int failures = 0;
+                // Keep buying until the product has been sold out for a while
+                while (failures < 50) {
+                    int quantity = random.nextInt(1, 4);
+                    try {
+                        switch (random.nextInt(3)) {
+                            case 0 -> {
+                                ReservationDto reservation = reservationService.reserve(1L, quantity, buyer);
+                                if (random.nextBoolean()) {
+                                    reservationService.release(reservation.getId(), buyer);
+                                } else {
+                                    // Order a different quantity than reserved: the surplus goes back, the shortfall is taken
+                                    try {
+                                        granted += reservationService.allocate(Map.of(1L, random.nextInt(1, 4)),
+                                                List.of(reservation.getId())).get(1L);
+                                    } catch (InsufficientStockException e) {
+                                        reservationService.release(reservation.getId(), buyer);
+                                        throw e;
+                                    }
+                                }
+                            }
+                            case 1 -> granted += reservationService.allocate(Map.of(1L, quantity), null).get(1L);
+                            default -> granted += reservationService.allocate(Map.of(1L, quantity, 2L, 1), List.of("unknown")).get(1L);
+                        }
+                    } catch (InsufficientStockException e) {
+                        failures++;
+                    }
+                }
+                return granted;
+            }));
+        }
+        start.countDown();
+        int granted = 0;
+        for (Future<Integer> result : results) {
+            granted += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int available = reservationService.getFlashSales().get(0).getAvailable();
+        assertTrue(available >= 0, "oversold by " + -available);
+        assertEquals(stock, granted + available);
+        assertEquals(0, reservationService.getFlashSales().get(0).getReserved());
+    }
+
+    @Test
+    public void givenReservationForMoreThanOrdered_whenAllocate_thenSurplusGoesBackOnSale() {
+        activate(1L, 10, 0);
+        ReservationDto reservation = reservationService.reserve(1L, 4, "alice");
+        assertEquals(6, reservationService.getFlashSales().get(0).getAvailable());
+
+        Map<Long, Integer> allocated = reservationService.allocate(Map.of(1L, 3, 2L, 5), List.of(reservation.getId()));
+
+        assertEquals(Map.of(1L, 3), allocated);
+        assertEquals(7, reservationService.getFlashSales().get(0).getAvailable());
+        assertEquals(0, reservationService.getFlashSales().get(0).getReserved());
+    }
+
+    @Test
+    public void givenShortProduct_whenAllocate_thenPutsBackEverythingIncludingReservations() {
+        activate(1L, 10, 0);
+        activate(2L, 1, 0);
+        ReservationDto reservation = reservationService.reserve(1L, 2, "alice");
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> reservationService.allocate(Map.of(1L, 5, 2L, 2), List.of(reservation.getId())));
+
+        assertEquals(2L, exception.getProductId());
+        assertEquals(1, exception.getAvailable());
+        assertEquals(8, reservationService.getFlashSales().get(0).getAvailable());
+        assertEquals(2, reservationService.getFlashSales().get(0).getReserved());
+        assertEquals(1, reservationService.getFlashSales().get(1).getAvailable());
+    }
+
+    @Test
+    public void givenOrderTransactionRolledBack_whenAllocated_thenReservationIsHeldAgainAndCounterRestored() {
+        activate(1L, 10, 0);
+        ReservationDto small = reservationService.reserve(1L, 2, "alice");
+        ReservationDto large = reservationService.reserve(1L, 4, "bob");
+        assertEquals(4, reservationService.getFlashSales().get(0).getAvailable());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // 2 from the small reservation and 3 from the counter; 1 of the large one is surplus
+            reservationService.allocate(Map.of(1L, 5), List.of(small.getId()));
+            reservationService.allocate(Map.of(1L, 3), List.of(large.getId()));
+            assertEquals(1, reservationService.getFlashSales().get(0).getAvailable());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(4, reservationService.getFlashSales().get(0).getAvailable());
+        assertEquals(6, reservationService.getFlashSales().get(0).getReserved());
+        assertEquals(Map.of(1L, 4), reservationService.allocate(Map.of(1L, 4), List.of(large.getId())));
+        assertEquals(4, reservationService.getFlashSales().get(0).getAvailable());
+    }
+
+    @Test
+    public void givenReservationOfAnotherUser_whenRelease_thenNotFoundAndStillHeld() {
+        activate(1L, 10, 0);
+        ReservationDto reservation = reservationService.reserve(1L, 4, "alice");
+
+        assertThrows(ResourceNotFoundException.class, () -> reservationService.release(reservation.getId(), "bob"));
+        assertEquals(4, reservationService.getFlashSales().get(0).getReserved());
+
+        reservationService.release(reservation.getId(), "alice");
+        assertEquals(10, reservationService.getFlashSales().get(0).getAvailable());
+    }
+
+    @Test
+    public void givenOpenReservation_whenSameUserReservesAgain_thenLimitExceededWithoutTakingStock() {
+        activate(1L, 10, 0);
+        reservationService.reserve(1L, 4, "alice");
+
+        assertThrows(ReservationLimitExceededException.class, () -> reservationService.reserve(1L, 1, "alice"));
+        assertEquals(6, reservationService.getFlashSales().get(0).getAvailable());
+        reservationService.reserve(1L, 1, "bob");
+        assertEquals(5, reservationService.getFlashSales().get(0).getAvailable());
+    }
+
+    @Test
+    public void givenStockChangedDuringSale_whenOnStockChanged_thenCounterFollowsTheChange() {
+        activate(1L, 10, 0);
+        reservationService.reserve(1L, 4, "alice");
+
+        reservationService.onStockChanged(new ProductStockChangedEvent(1L, 5));
+        assertEquals(11, reservationService.getFlashSales().get(0).getAvailable());
+
+        reservationService.onStockChanged(new ProductStockChangedEvent(1L, -20));
+        assertEquals(0, reservationService.getFlashSales().get(0).getAvailable());
+        assertEquals(4, reservationService.getFlashSales().get(0).getReserved());
+        assertThrows(InsufficientStockException.class, () -> reservationService.reserve(1L, 1, "bob"));
+    }
+
+    @Test
+    public void givenExpiredReservation_whenExpire_thenUnitsGoBackAndReservationIsGone() {
+        activate(1L, 5, 0);
+        ReservationDto reservation = reservationService.reserve(1L, 5, "alice");
+        assertThrows(InsufficientStockException.class, () -> reservationService.reserve(1L, 1, "bob"));
+
+        assertEquals(0, reservationService.expireReservations(Instant.now()));
+        assertEquals(1, reservationService.expireReservations(reservation.getExpiresAt()));
+
+        assertEquals(5, reservationService.getFlashSales().get(0).getAvailable());
+        assertEquals(Map.of(1L, 5), reservationService.allocate(Map.of(1L, 5), List.of(reservation.getId())));
+    }
+
+    @Test
+    public void givenDeductions_whenFlush_thenAppliesOneDecrementPerProductAndDeletesTheRowsRead() {
+        when(stockDeductionRepository.findAllByOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(deduction(10L, 7L, 2), deduction(11L, 3L, 1)))
+                .thenReturn(List.of(deduction(12L, 7L, 4)));
+
+        reservationService.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        List<Object[]> first = batches.getAllValues().get(0);
+        assertEquals(3L, first.get(0)[2]);
+        assertEquals(1, first.get(0)[0]);
+        assertEquals(7L, first.get(1)[2]);
+        assertEquals(2, first.get(1)[0]);
+        verify(stockDeductionRepository).deleteAllByIdInBatch(List.of(10L, 11L));
+        verify(stockDeductionRepository).deleteAllByIdInBatch(List.of(12L));
+        verify(productService).refreshReadModels(Set.of(3L, 7L));
+    }
+
+    private void activate(Long productId, int stock, long pending) {
+        when(productRepository.findById(productId))
+                .thenReturn(Optional.of(Product.builder().id(productId).name("Product " + productId).stock(stock).build()));
+        when(stockDeductionRepository.sumQuantityByProductId(productId)).thenReturn(pending);
+        reservationService.activate(productId);
+    }
+
+    private static StockDeduction deduction(Long id, Long productId, int quantity) {
+        return StockDeduction.builder().id(id).productId(productId).orderId(1L).quantity(quantity).build();
+    }
+}
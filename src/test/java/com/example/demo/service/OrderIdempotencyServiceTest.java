@@ -0,0 +1,144 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OrderDto;
+import com.example.demo.dto.OrderItemDto;
+import com.example.demo.exception.IdempotencyKeyReusedException;
+import com.example.demo.model.IdempotencyRecord;
+import com.example.demo.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderIdempotencyServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderIdempotencyService idempotencyService;
+    private OrderDto orderDto;
+
+    @BeforeEach
+    public void setup() {
+        idempotencyService = new OrderIdempotencyService(orderService, idempotencyRecordRepository, jdbcTemplate,
+                transactionManager, new ObjectMapper().findAndRegisterModules(), Duration.ofHours(24), 100);
+        orderDto = OrderDto.builder()
+                .customerName("Test Customer")
+                .orderItems(List.of(OrderItemDto.builder().productId(1L).quantity(2).build()))
+                .build();
+    }
+
+    @Test
+    public void givenRetryWithSameKey_whenCreateOrder_thenReturnsOriginalFromMemory() {
+        OrderDto created = OrderDto.builder().id(5L).build();
+        when(orderService.createOrder(orderDto)).thenReturn(created);
+
+        OrderDto first = idempotencyService.createOrder("key-1", orderDto);
+        OrderDto retry = idempotencyService.createOrder("key-1", copy(orderDto));
+
+        assertSame(created, first);
+        assertSame(created, retry);
+        verify(orderService, times(1)).createOrder(any());
+        verify(idempotencyRecordRepository, times(1)).findById("key-1");
+        verify(jdbcTemplate).update(startsWith("UPDATE"), eq(5L), eq("key-1"));
+    }
+
+    @Test
+    public void givenKeyUsedForDifferentOrder_whenCreateOrder_thenRefused() {
+        when(orderService.createOrder(orderDto)).thenReturn(OrderDto.builder().id(5L).build());
+        idempotencyService.createOrder("key-1", orderDto);
+
+        OrderDto different = copy(orderDto);
+        different.setOrderItems(List.of(OrderItemDto.builder().productId(1L).quantity(3).build()));
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyService.createOrder("key-1", different));
+    }
+
+    @Test
+    public void givenKeyOnlyInDatabase_whenCreateOrder_thenLoadsOriginalOrderWithoutWriting() {
+        OrderDto created = OrderDto.builder().id(5L).build();
+        when(orderService.createOrder(orderDto)).thenReturn(created);
+        idempotencyService.createOrder("key-1", orderDto);
+        ArgumentCaptor<Object> requestHash = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(startsWith("INSERT"), eq("key-1"), requestHash.capture(), any(), any());
+
+        // As after a restart: nothing in memory, the key row is still there
+        OrderIdempotencyService restarted = new OrderIdempotencyService(orderService, idempotencyRecordRepository,
+                jdbcTemplate, transactionManager, new ObjectMapper().findAndRegisterModules(), Duration.ofHours(24), 100);
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(record((String) requestHash.getValue())));
+        when(orderService.getOrderById(5L)).thenReturn(created);
+
+        assertEquals(5L, restarted.createOrder("key-1", copy(orderDto)).getId());
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    @Test
+    public void givenConcurrentRequestWithSameKey_whenInsertCollides_thenReturnsTheWinnersOrder() {
+        OrderIdempotencyService probe = new OrderIdempotencyService(orderService, idempotencyRecordRepository,
+                jdbcTemplate, transactionManager, new ObjectMapper().findAndRegisterModules(), Duration.ofHours(24), 100);
+        when(orderService.createOrder(orderDto)).thenReturn(OrderDto.builder().id(5L).build());
+        probe.createOrder("probe", orderDto);
+        ArgumentCaptor<Object> requestHash = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(startsWith("INSERT"), eq("probe"), requestHash.capture(), any(), any());
+
+        doThrow(new DuplicateKeyException("duplicate key")).when(jdbcTemplate)
+                .update(startsWith("INSERT"), eq("key-2"), any(), any(), any());
+        when(idempotencyRecordRepository.findById("key-2"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(record((String) requestHash.getValue())));
+        when(orderService.getOrderById(5L)).thenReturn(OrderDto.builder().id(5L).build());
+
+        assertEquals(5L, idempotencyService.createOrder("key-2", orderDto).getId());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE"), any(), eq("key-2"));
+    }
+
+    private static IdempotencyRecord record(String requestHash) {
+        return IdempotencyRecord.builder()
+                .idempotencyKey("key")
+                .requestHash(requestHash)
+                .orderId(5L)
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+
+    private static OrderDto copy(OrderDto orderDto) {
+        return OrderDto.builder()
+                .customerName(orderDto.getCustomerName())
+                .orderItems(orderDto.getOrderItems())
+                .build();
+    }
+}
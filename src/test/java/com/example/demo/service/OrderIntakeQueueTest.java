@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OrderDto;
+import com.example.demo.dto.OrderIntakeDto;
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.exception.OrderQueueFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderIntakeQueueTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderIntakeQueue intakeQueue;
+
+    @BeforeEach
+    public void setup() {
+        // No workers: the tests hand batches to place() themselves
+        intakeQueue = new OrderIntakeQueue(orderService, transactionManager, true, 0, 2, 20, Duration.ofHours(1));
+    }
+
+    @Test
+    public void givenFullQueue_whenSubmit_thenRefusesWithoutKeepingAHandle() {
+        intakeQueue.submit(order("a"));
+        intakeQueue.submit(order("b"));
+
+        assertThrows(OrderQueueFullException.class, () -> intakeQueue.submit(order("c")));
+    }
+
+    @Test
+    public void givenBatch_whenPlaced_thenOneTransactionAndAllCompleted() {
+        OrderDto first = order("a");
+        OrderDto second = order("b");
+        OrderIntakeQueue.QueuedOrder queuedFirst = queued(first);
+        OrderIntakeQueue.QueuedOrder queuedSecond = queued(second);
+        when(orderService.createOrder(first)).thenReturn(OrderDto.builder().id(1L).build());
+        when(orderService.createOrder(second)).thenReturn(OrderDto.builder().id(2L).build());
+        when(orderService.getOrderById(2L)).thenReturn(OrderDto.builder().id(2L).build());
+
+        intakeQueue.place(List.of(queuedFirst, queuedSecond));
+
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+        OrderIntakeDto status = intakeQueue.getStatus(handleOf(queuedSecond));
+        assertEquals(OrderIntakeDto.Status.COMPLETED, status.getStatus());
+        assertEquals(2L, status.getOrder().getId());
+    }
+
+    @Test
+    public void givenOrderOutOfStock_whenBatchPlaced_thenRetriesOneByOneAndRejectsOnlyThatOrder() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        OrderDto good = order("a");
+        OrderDto bad = order("b");
+        OrderIntakeQueue.QueuedOrder queuedGood = queued(good);
+        OrderIntakeQueue.QueuedOrder queuedBad = queued(bad);
+        when(orderService.createOrder(good)).thenReturn(OrderDto.builder().id(1L).build());
+        when(orderService.createOrder(bad)).thenThrow(new InsufficientStockException(7L, "Phone", 2, 1));
+
+        intakeQueue.place(List.of(queuedGood, queuedBad));
+
+        verify(transactionManager).rollback(any());
+        verify(orderService, times(2)).createOrder(good);
+        assertEquals(OrderIntakeDto.Status.REJECTED, intakeQueue.getStatus(handleOf(queuedBad)).getStatus());
+        assertEquals(409, intakeQueue.getStatus(handleOf(queuedBad)).getErrorStatus());
+        when(orderService.getOrderById(1L)).thenReturn(OrderDto.builder().id(1L).build());
+        assertEquals(1L, intakeQueue.getStatus(handleOf(queuedGood)).getOrderId());
+    }
+
+    private OrderIntakeQueue.QueuedOrder queued(OrderDto order) {
+        OrderIntakeDto intake = intakeQueue.submit(order);
+        return new OrderIntakeQueue.QueuedOrder(intake, order);
+    }
+
+    private static String handleOf(OrderIntakeQueue.QueuedOrder queued) {
+        return queued.getIntake().getHandle();
+    }
+
+    private static OrderDto order(String customerName) {
+        return OrderDto.builder().customerName(customerName).build();
+    }
+}
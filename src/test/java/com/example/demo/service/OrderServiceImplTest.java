@@ -1,7 +1,15 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPageDto;
 import com.example.demo.dto.OrderDto;
 import com.example.demo.dto.OrderItemDto;
+import com.example.demo.dto.OrderLineDto;
+import com.example.demo.dto.OrderStatusOutcomeDto;
+import com.example.demo.dto.OrderStatusUpdateResultDto;
+import com.example.demo.dto.OrderSummaryDto;
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.exception.InvalidCursorException;
+import com.example.demo.exception.InvalidOrderStatusTransitionException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Order;
 import com.example.demo.model.OrderItem;
@@ -12,20 +20,35 @@ import com.example.demo.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +63,15 @@ public class OrderServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private InventoryReservationService inventoryReservationService;
+
+    @Mock
+    private ProductSalesRecorder productSalesRecorder;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -95,13 +127,280 @@ public class OrderServiceImplTest {
 
     @Test
     public void givenOrderDto_whenCreateOrder_thenReturnOrderDto() {
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product));
+        when(productRepository.decrementStock(Map.of(1L, 1))).thenReturn(List.of());
         when(orderRepository.save(any(Order.class))).thenReturn(order);
 
         OrderDto createdOrderDto = orderService.createOrder(orderDto);
 
         assertEquals(1L, createdOrderDto.getId());
         assertEquals("Test Customer", createdOrderDto.getCustomerName());
+        ArgumentCaptor<OrderPlacedEvent> event = ArgumentCaptor.forClass(OrderPlacedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().getOrderId());
+        assertEquals(Map.of(1L, 1), event.getValue().getQuantitiesByProductId());
+    }
+
+    @Test
+    public void givenRepeatedProductLines_whenCreateOrder_thenLoadsProductsOnceAndDeductsSummedQuantity() {
+        Product other = Product.builder().id(2L).name("Other").price(BigDecimal.ONE).build();
+        orderDto.setOrderItems(List.of(
+                OrderItemDto.builder().productId(1L).quantity(2).build(),
+                OrderItemDto.builder().productId(2L).quantity(1).build(),
+                OrderItemDto.builder().productId(1L).quantity(3).build()));
+        when(productRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(product, other));
+        when(productRepository.decrementStock(Map.of(1L, 5, 2L, 1))).thenReturn(List.of());
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        OrderDto createdOrderDto = orderService.createOrder(orderDto);
+
+        assertEquals(3, createdOrderDto.getOrderItems().size());
+        assertEquals(51.0, createdOrderDto.getTotalAmount());
+        verify(productRepository, times(1)).findAllById(Set.of(1L, 2L));
+        verify(productRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void givenInsufficientStock_whenCreateOrder_thenThrowsConflictAndSavesNothing() {
+        product.setStock(1);
+        orderDto.setOrderItems(List.of(OrderItemDto.builder().productId(1L).quantity(2).build()));
+        when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product));
+        when(productRepository.decrementStock(Map.of(1L, 2))).thenReturn(List.of(1L));
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(orderDto));
+
+        assertEquals(1L, exception.getProductId());
+        assertEquals(2, exception.getRequested());
+        assertEquals(1, exception.getAvailable());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void givenFlashSaleProduct_whenCreateOrder_thenTakesItFromMemoryAndJournalsDeduction() {
+        Product other = Product.builder().id(2L).name("Other").price(BigDecimal.ONE).build();
+        orderDto.setOrderItems(List.of(
+                OrderItemDto.builder().productId(1L).quantity(2).build(),
+                OrderItemDto.builder().productId(2L).quantity(1).build()));
+        orderDto.setReservationIds(List.of("r-1"));
+        when(productRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(product, other));
+        when(inventoryReservationService.allocate(Map.of(1L, 2, 2L, 1), List.of("r-1"))).thenReturn(Map.of(1L, 2));
+        when(productRepository.decrementStock(Map.of(2L, 1))).thenReturn(List.of());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+
+        orderService.createOrder(orderDto);
+
+        verify(inventoryReservationService).recordDeductions(1L, Map.of(1L, 2));
+        verify(productSalesRecorder).record(Map.of(1L, 2, 2L, 1));
+    }
+
+    @Test
+    public void givenUnknownProduct_whenCreateOrder_thenThrowsBeforeTouchingStock() {
+        when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.createOrder(orderDto));
+
+        verify(productRepository, never()).decrementStock(any());
+        verify(inventoryReservationService, never()).allocate(any(), any());
+    }
+
+    @Test
+    public void givenPageOfOrders_whenGetOrders_thenLoadsAllTheirLinesWithOneQuery() {
+        Order first = Order.builder().id(1L).customerName("A").status(Order.OrderStatus.PENDING).build();
+        Order second = Order.builder().id(2L).customerName("B").status(Order.OrderStatus.PENDING).build();
+        Pageable pageable = PageRequest.of(0, 2);
+        when(orderRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(first, second), pageable, 5));
+        when(orderItemRepository.findLinesByOrderIds(List.of(1L, 2L))).thenReturn(List.of(
+                new OrderLineDto(1L, 10L, 7L, "Phone", 1, 9.0, new String[]{"phone.jpg"}),
+                new OrderLineDto(1L, 11L, 8L, "Case", 2, 1.0, null),
+                new OrderLineDto(2L, 12L, 7L, "Phone", 1, 9.0, new String[]{"phone.jpg"})));
+
+        Page<OrderDto> page = orderService.getOrders(Order.OrderStatus.PENDING, pageable);
+
+        assertEquals(5, page.getTotalElements());
+        assertEquals(2, page.getContent().get(0).getOrderItems().size());
+        assertEquals("phone.jpg", page.getContent().get(0).getOrderItems().get(0).getImageUrl());
+        assertEquals(12L, page.getContent().get(1).getOrderItems().get(0).getId());
+        verify(orderItemRepository, times(1)).findLinesByOrderIds(any());
+    }
+
+    @Test
+    public void givenOversizedPage_whenGetOrders_thenCapsPageSize() {
+        when(orderRepository.findAll(ArgumentMatchers.<Specification<Order>>any(), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<Order>(List.of(), invocation.getArgument(1), 0));
+
+        Page<OrderDto> page = orderService.getOrders(null, PageRequest.of(0, 10_000));
+
+        assertEquals(100, page.getSize());
+    }
+
+    @Test
+    public void givenZeroOrNegativeSize_whenScrollOrders_thenReturnsOneRowPage() {
+        Order older = Order.builder().id(2L).orderDate(LocalDateTime.now().minusDays(1)).status(Order.OrderStatus.PENDING).build();
+        when(orderRepository.findBy(ArgumentMatchers.<Specification<Order>>any(), any())).thenReturn(List.of(order, older));
+
+        for (int size : new int[]{0, -5}) {
+            CursorPageDto<OrderDto> page = orderService.scrollOrders(null, size, "desc");
+
+            assertEquals(1, page.getSize());
+            assertEquals(1, page.getContent().size());
+            assertEquals(true, page.isHasNext());
+        }
+    }
+
+    @Test
+    public void givenUnknownSortDirection_whenScrollOrders_thenThrowsInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> orderService.scrollOrders(null, 20, "sideways"));
+    }
+
+    @Test
+    public void givenCustomerOrders_whenGetCustomerOrders_thenReturnsSummariesWithoutReadingLines() {
+        LocalDateTime now = LocalDateTime.now();
+        Order newest = Order.builder().id(3L).orderDate(now).status(Order.OrderStatus.PENDING).totalAmount(9.0).build();
+        Order older = Order.builder().id(2L).orderDate(now.minusDays(1)).status(Order.OrderStatus.DELIVERED).totalAmount(1.0).build();
+        Order oldest = Order.builder().id(1L).orderDate(now.minusDays(2)).status(Order.OrderStatus.DELIVERED).totalAmount(5.0).build();
+        when(orderRepository.findBy(ArgumentMatchers.<Specification<Order>>any(), any()))
+                .thenReturn(List.of(newest, older, oldest));
+
+        CursorPageDto<OrderSummaryDto> page = orderService.getCustomerOrders("a@example.com", null, 2, false);
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(3L, page.getContent().get(0).getId());
+        assertNull(page.getContent().get(0).getOrderItems());
+        assertEquals(true, page.isHasNext());
+        assertEquals(KeysetCursor.encode("orderDate", Sort.Direction.DESC, older.getOrderDate().toString(), 2L),
+                page.getNextCursor());
+        verify(orderItemRepository, never()).findLinesByOrderIds(any());
+    }
+
+    @Test
+    public void givenIncludeItems_whenGetCustomerOrders_thenLoadsLinesOfThePageWithOneQuery() {
+        Order newest = Order.builder().id(3L).orderDate(LocalDateTime.now()).status(Order.OrderStatus.PENDING).build();
+        when(orderRepository.findBy(ArgumentMatchers.<Specification<Order>>any(), any()))
+                .thenReturn(List.of(newest));
+        when(orderItemRepository.findLinesByOrderIds(List.of(3L))).thenReturn(List.of(
+                new OrderLineDto(3L, 10L, 7L, "Phone", 1, 9.0, new String[]{"phone.jpg"})));
+
+        CursorPageDto<OrderSummaryDto> page = orderService.getCustomerOrders("a@example.com", null, 20, true);
+
+        assertEquals(false, page.isHasNext());
+        assertNull(page.getNextCursor());
+        assertEquals("Phone", page.getContent().get(0).getOrderItems().get(0).getProductName());
+    }
+
+    @Test
+    public void givenMixedOrders_whenUpdateOrderStatuses_thenOneUpdatePerSourceStatusAndOutcomePerOrder() {
+        when(orderRepository.findStatusesByIdIn(List.of(1L, 2L, 3L, 4L, 5L, 6L))).thenReturn(List.of(
+                new Object[]{1L, Order.OrderStatus.PENDING},
+                new Object[]{2L, Order.OrderStatus.CONFIRMED},
+                new Object[]{3L, Order.OrderStatus.DELIVERED},
+                new Object[]{4L, Order.OrderStatus.CANCELLED},
+                new Object[]{6L, Order.OrderStatus.PENDING}));
+        when(orderRepository.updateStatus(List.of(1L, 6L), Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED))
+                .thenReturn(2);
+        when(orderRepository.updateStatus(List.of(2L), Order.OrderStatus.CONFIRMED, Order.OrderStatus.CANCELLED))
+                .thenReturn(1);
+
+        OrderStatusUpdateResultDto result = orderService.updateOrderStatuses(
+                List.of(1L, 2L, 3L, 4L, 5L, 6L, 1L), Order.OrderStatus.CANCELLED);
+
+        assertEquals(3, result.getUpdated());
+        assertEquals(List.of(
+                        OrderStatusOutcomeDto.Outcome.UPDATED,
+                        OrderStatusOutcomeDto.Outcome.UPDATED,
+                        OrderStatusOutcomeDto.Outcome.INVALID_TRANSITION,
+                        OrderStatusOutcomeDto.Outcome.UNCHANGED,
+                        OrderStatusOutcomeDto.Outcome.NOT_FOUND,
+                        OrderStatusOutcomeDto.Outcome.UPDATED),
+                result.getOutcomes().stream().map(OrderStatusOutcomeDto::getOutcome).toList());
+        assertEquals(Order.OrderStatus.DELIVERED, result.getOutcomes().get(2).getPreviousStatus());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    public void givenOrderChangedConcurrently_whenUpdateOrderStatuses_thenReportsConflictForIt() {
+        when(orderRepository.findStatusesByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, Order.OrderStatus.PENDING}, new Object[]{2L, Order.OrderStatus.PENDING}))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, Order.OrderStatus.CONFIRMED}, new Object[]{2L, Order.OrderStatus.CANCELLED}));
+        when(orderRepository.updateStatus(List.of(1L, 2L), Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED))
+                .thenReturn(1);
+
+        OrderStatusUpdateResultDto result = orderService.updateOrderStatuses(List.of(1L, 2L), Order.OrderStatus.CONFIRMED);
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(OrderStatusOutcomeDto.Outcome.CONFLICT, result.getOutcomes().get(1).getOutcome());
+    }
+
+    @Test
+    public void givenPendingOrder_whenCancelled_thenPutsItsUnitsBackOnStock() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.updateStatus(List.of(1L), Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED)).thenReturn(1);
+        when(orderItemRepository.sumQuantitiesByProductId(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, 3L}));
+
+        OrderDto cancelled = orderService.updateOrderStatus(1L, "CANCELLED");
+
+        assertEquals(Order.OrderStatus.CANCELLED, cancelled.getStatus());
+        verify(productRepository).incrementStock(Map.of(1L, 3));
+        verify(productSalesRecorder).record(Map.of(1L, -3));
+        verify(eventPublisher).publishEvent(any(OrderStockReleasedEvent.class));
+    }
+
+    @Test
+    public void givenOrderCancelledConcurrently_whenCancelled_thenRefusesWithoutTouchingStock() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.updateStatus(List.of(1L), Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED)).thenReturn(0);
+
+        assertThrows(InvalidOrderStatusTransitionException.class, () -> orderService.updateOrderStatus(1L, "CANCELLED"));
+        verify(productRepository, never()).incrementStock(any());
+    }
+
+    @Test
+    public void givenOrdersCancelledInBulk_whenUpdateOrderStatuses_thenRestoresStockOfMovedOrdersInOneBatch() {
+        when(orderRepository.findStatusesByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new Object[]{1L, Order.OrderStatus.PENDING},
+                new Object[]{2L, Order.OrderStatus.CONFIRMED},
+                new Object[]{3L, Order.OrderStatus.SHIPPING}));
+        when(orderRepository.updateStatus(List.of(1L), Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED)).thenReturn(1);
+        when(orderRepository.updateStatus(List.of(2L), Order.OrderStatus.CONFIRMED, Order.OrderStatus.CANCELLED)).thenReturn(1);
+        when(orderItemRepository.sumQuantitiesByProductId(List.of(1L, 2L)))
+                .thenReturn(List.<Object[]>of(new Object[]{7L, 4L}, new Object[]{8L, 1L}));
+
+        orderService.updateOrderStatuses(List.of(1L, 2L, 3L), Order.OrderStatus.CANCELLED);
+
+        verify(productRepository, times(1)).incrementStock(Map.of(7L, 4, 8L, 1));
+    }
+
+    @Test
+    public void givenShippedOrder_whenDeleteOrder_thenStockStaysTaken() {
+        order.setStatus(Order.OrderStatus.SHIPPING);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        orderService.deleteOrder(1L);
+
+        verify(orderRepository).delete(order);
+        verify(productRepository, never()).incrementStock(any());
+    }
+
+    @Test
+    public void givenPendingOrder_whenDeleteOrder_thenPutsItsUnitsBackOnStock() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderItemRepository.sumQuantitiesByProductId(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, 2L}));
+
+        orderService.deleteOrder(1L);
+
+        verify(productRepository).incrementStock(Map.of(1L, 2));
+        verify(orderRepository).delete(order);
+    }
+
+    @Test
+    public void givenDeliveredOrder_whenUpdateOrderStatus_thenRefusesTransition() {
+        order.setStatus(Order.OrderStatus.DELIVERED);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        assertThrows(InvalidOrderStatusTransitionException.class, () -> orderService.updateOrderStatus(1L, "PENDING"));
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
@@ -0,0 +1,53 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProductBestsellerIndexTest {
+
+    private ProductBestsellerIndex bestsellerIndex;
+
+    @BeforeEach
+    public void setup() {
+        bestsellerIndex = new ProductBestsellerIndex();
+        bestsellerIndex.rebuild(List.of(
+                product(1L, 1L, 5),
+                product(2L, 1L, 40),
+                product(3L, 2L, 20),
+                product(4L, 2L, 20),
+                product(5L, 2L, 0)
+        ));
+    }
+
+    @Test
+    public void givenCategory_whenTop_thenReturnsBestSellingFirstWithIdTieBreak() {
+        assertEquals(List.of(2L, 3L, 4L), bestsellerIndex.top(null, 3));
+        assertEquals(List.of(3L, 4L, 5L), bestsellerIndex.top(2L, 10));
+        assertTrue(bestsellerIndex.top(9L, 10).isEmpty());
+    }
+
+    @Test
+    public void givenSalesAndCategoryChanges_whenTop_thenReflectsThem() {
+        bestsellerIndex.upsert(product(5L, 2L, 100));
+        bestsellerIndex.upsert(product(1L, 2L, 5));
+        bestsellerIndex.remove(3L);
+
+        assertEquals(List.of(5L, 2L, 4L), bestsellerIndex.top(null, 3));
+        assertEquals(List.of(5L, 4L, 1L), bestsellerIndex.top(2L, 10));
+        assertEquals(List.of(2L), bestsellerIndex.top(1L, 10));
+    }
+
+    private ProductDto product(Long id, Long categoryId, int sold) {
+        return ProductDto.builder()
+                .id(id)
+                .categoryId(categoryId)
+                .sold(sold)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductDto;
+import com.example.demo.dto.ProductFacetsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProductCatalogIndexTest {
+
+    private ProductCatalogIndex catalogIndex;
+
+    @BeforeEach
+    public void setup() {
+        catalogIndex = new ProductCatalogIndex();
+        catalogIndex.rebuild(List.of(
+                product(1L, "iPhone 14", "Apple", "Black", 1L, 20000000),
+                product(2L, "Galaxy S23", "Samsung", "White", 1L, 18000000),
+                product(3L, "Dell Inspiron", "Dell", "Black", 2L, 15000000),
+                product(4L, "Casio Watch", "Casio", "Silver", 3L, 1200000)
+        ));
+    }
+
+    @Test
+    public void givenNoIndexLoaded_whenCanServe_thenFalse() {
+        assertFalse(new ProductCatalogIndex().canServe(Pageable.unpaged()));
+    }
+
+    @Test
+    public void givenUnknownSortProperty_whenCanServe_thenFalse() {
+        assertTrue(catalogIndex.canServe(PageRequest.of(0, 10, Sort.by("price"))));
+        assertFalse(catalogIndex.canServe(PageRequest.of(0, 10, Sort.by("unknown"))));
+    }
+
+    @Test
+    public void givenBitmapCriteria_whenFilter_thenIntersectsBrandColorAndCategory() {
+        Page<ProductDto> page = catalogIndex.filter(null, 1L, null, "black", null, null, PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(1L, page.getContent().get(0).getId());
+    }
+
+    @Test
+    public void givenLikePatterns_whenFilter_thenMatchesCaseInsensitively() {
+        Page<ProductDto> page = catalogIndex.filter("%in%", null, "d_ll", null, null, null, PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals("Dell Inspiron", page.getContent().get(0).getName());
+    }
+
+    @Test
+    public void givenPriceRange_whenFilterSortedByPriceDesc_thenReturnsInclusiveRangeInOrder() {
+        Page<ProductDto> page = catalogIndex.filter(null, null, null, null, 15000000.0, 20000000.0,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        assertEquals(1L, page.getContent().get(0).getId());
+        assertEquals(2L, page.getContent().get(1).getId());
+    }
+
+    @Test
+    public void givenWrites_whenFilter_thenReflectsUpsertAndRemove() {
+        catalogIndex.upsert(product(5L, "iPhone 15", "Apple", "Blue", 1L, 25000000));
+        catalogIndex.remove(1L);
+
+        Page<ProductDto> page = catalogIndex.filter(null, null, "Apple", null, null, null, PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(5L, page.getContent().get(0).getId());
+    }
+
+    @Test
+    public void givenCriteria_whenFacets_thenCountsMatchingProductsPerFacet() {
+        BigDecimal[] priceBounds = {BigDecimal.ZERO, BigDecimal.valueOf(10000000), BigDecimal.valueOf(20000000)};
+
+        ProductFacetsDto facets = catalogIndex.facets(null, null, null, null, null, 19000000.0, priceBounds);
+
+        assertEquals(3, facets.getTotal());
+        assertEquals(3, facets.getCategories().size());
+        assertEquals(1L, facets.getCategories().get(1L));
+        assertEquals(1L, facets.getColors().get("Black"));
+        assertEquals(1L, facets.getPriceBuckets().get(0).getCount());
+        assertEquals(2L, facets.getPriceBuckets().get(1).getCount());
+        assertEquals(0L, facets.getPriceBuckets().get(2).getCount());
+    }
+
+    private ProductDto product(Long id, String name, String brand, String color, Long categoryId, long price) {
+        return ProductDto.builder()
+                .id(id)
+                .name(name)
+                .brand(brand)
+                .color(color)
+                .categoryId(categoryId)
+                .price(BigDecimal.valueOf(price))
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductDto;
+import com.example.demo.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductExportService productExportService;
+
+    @BeforeEach
+    public void setup() {
+        productExportService = new ProductExportService(productRepository, transactionManager, new ObjectMapper(), 100);
+    }
+
+    @Test
+    public void givenProducts_whenExportCsv_thenWritesImportCompatibleRowsAndClosesCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(productRepository.streamProductDtos(100)).thenReturn(Stream.of(
+                product(1L, "iPhone 14", "Black, \"Pro\"", new String[]{"/a.jpg", "/b.jpg"}),
+                product(2L, "Casio", null, new String[0])
+        ).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        productExportService.exportCsv(output);
+
+        assertEquals("id,name,description,price,brand,color,categoryId,stock,images,sold\n"
+                        + "1,iPhone 14,\"Black, \"\"Pro\"\"\",1000000,Brand,,3,5,/a.jpg|/b.jpg,2\n"
+                        + "2,Casio,,1000000,Brand,,3,5,,2\n",
+                output.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void givenProducts_whenExportNdjson_thenWritesOneObjectPerLine() throws Exception {
+        when(productRepository.streamProductDtos(100)).thenReturn(Stream.of(
+                product(1L, "iPhone 14", null, null),
+                product(2L, "Casio", null, null)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        productExportService.exportNdjson(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Casio", new ObjectMapper().readTree(lines[1]).get("name").asText());
+    }
+
+    private ProductDto product(Long id, String name, String description, String[] images) {
+        return ProductDto.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .price(BigDecimal.valueOf(1000000))
+                .brand("Brand")
+                .categoryId(3L)
+                .stock(5)
+                .imageUrls(images)
+                .sold(2)
+                .build();
+    }
+}
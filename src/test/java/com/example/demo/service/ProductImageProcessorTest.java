@@ -0,0 +1,56 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProductImageProcessorTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private final ProductImageProcessor imageProcessor = new ProductImageProcessor(1, 10, 960, 320, 0.8f);
+
+    @AfterEach
+    public void tearDown() {
+        imageProcessor.shutdown();
+    }
+
+    @Test
+    public void givenLargeImage_whenSubmit_thenWritesMediumAndThumbnailJpegsOffThread() throws Exception {
+        Path original = uploadDir.resolve("abc_photo.png");
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+        CompletableFuture<List<ProductImageProcessor.ImageVariants>> result = new CompletableFuture<>();
+
+        assertTrue(imageProcessor.submit(List.of(original), result::complete));
+
+        ProductImageProcessor.ImageVariants variants = result.get(10, TimeUnit.SECONDS).get(0);
+        assertTrue(variants.isResized());
+        assertTrue(variants.getMedium().getFileName().toString().startsWith("abc_photo_w960-"));
+        assertEquals(960, ImageIO.read(variants.getMedium().toFile()).getWidth());
+        assertEquals(160, ImageIO.read(variants.getThumbnail().toFile()).getHeight());
+    }
+
+    @Test
+    public void givenUnreadableFile_whenProcess_thenKeepsOriginal() throws IOException {
+        Path original = Files.writeString(uploadDir.resolve("notes.txt"), "not an image");
+
+        ProductImageProcessor.ImageVariants variants = imageProcessor.process(original);
+
+        assertFalse(variants.isResized());
+        assertEquals(original, variants.getThumbnail());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ImageBlob;
+import com.example.demo.repository.ImageBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImageStoreTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private ImageBlobRepository imageBlobRepository;
+
+    @Mock
+    private ImageFileResolver imageFileResolver;
+
+    private ProductImageStore imageStore;
+
+    @BeforeEach
+    public void setup() {
+        imageStore = new ProductImageStore(imageBlobRepository, imageFileResolver, uploadDir.toString());
+    }
+
+    @Test
+    public void givenNewContent_whenStore_thenWritesFileNamedByHashWithOneReference() throws Exception {
+        when(imageBlobRepository.findById(HELLO_SHA256)).thenReturn(Optional.empty());
+
+        String url = imageStore.store(new MockMultipartFile("images", "Photo.JPG", "image/jpeg", "hello".getBytes()));
+
+        assertEquals("/images/products/2c/" + HELLO_SHA256 + ".jpg", url);
+        assertEquals("hello", Files.readString(imageStore.resolve(url)));
+        verify(imageBlobRepository).save(any(ImageBlob.class));
+        verify(imageFileResolver).invalidate("products/2c/" + HELLO_SHA256 + ".jpg");
+    }
+
+    @Test
+    public void givenKnownContent_whenStore_thenReusesExistingFileAndCountsReference() throws Exception {
+        when(imageBlobRepository.findById(HELLO_SHA256)).thenReturn(Optional.of(
+                ImageBlob.builder().hash(HELLO_SHA256).extension("png").refCount(1).build()));
+
+        String url = imageStore.store(new MockMultipartFile("images", "copy.jpg", "image/jpeg", "hello".getBytes()));
+
+        assertEquals("/images/products/2c/" + HELLO_SHA256 + ".png", url);
+        verify(imageBlobRepository).adjustRefCount(HELLO_SHA256, 1);
+        verify(imageBlobRepository, never()).save(any(ImageBlob.class));
+        try (var files = Files.list(uploadDir)) {
+            // Only the shard directory for the moved file; no leftover temp upload
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void givenLastReference_whenRelease_thenDeletesFile() throws Exception {
+        when(imageBlobRepository.findById(HELLO_SHA256)).thenReturn(Optional.empty());
+        String url = imageStore.store(new MockMultipartFile("images", "a.jpg", "image/jpeg", "hello".getBytes()));
+        when(imageBlobRepository.deleteIfUnreferenced(HELLO_SHA256)).thenReturn(1);
+
+        imageStore.release(url);
+
+        verify(imageBlobRepository).adjustRefCount(HELLO_SHA256, -1);
+        assertFalse(Files.exists(imageStore.resolve(url)));
+        // Once when the file was written, once when it was deleted
+        verify(imageFileResolver, times(2)).invalidate("products/2c/" + HELLO_SHA256 + ".jpg");
+    }
+
+    @Test
+    public void givenLegacyUrl_whenRelease_thenLeavesItAlone() {
+        imageStore.release("/images/products/0d7f9ccb-54ca-4cd6-a628-394e844528be_bong-da.jpg");
+
+        assertNull(imageStore.resolve("/images/products/0d7f9ccb-54ca-4cd6-a628-394e844528be_bong-da.jpg"));
+        verify(imageBlobRepository, never()).adjustRefCount(anyString(), anyInt());
+        assertEquals(HELLO_SHA256, ProductImageStore.hashOfFileName(HELLO_SHA256 + ".jpg"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CategoryDto;
+import com.example.demo.dto.ProductImportResultDto;
+import com.example.demo.exception.InvalidImportException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CategoryCatalog categoryCatalog;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductImageStore imageStore;
+
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    public void setup() {
+        productImportService = new ProductImportService(jdbcTemplate, transactionManager, categoryCatalog,
+                productService, imageStore, new ObjectMapper(), 2);
+    }
+
+    @Test
+    public void givenCsvWithInvalidRows_whenImportCsv_thenInsertsValidRowsInBatchesAndReportsErrors() throws Exception {
+        when(categoryCatalog.all()).thenReturn(List.of(CategoryDto.builder().id(1L).name("Phones").build()));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(40L);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(40L))).thenReturn(List.of(41L, 42L));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(42L))).thenReturn(List.of(43L));
+        String csv = "name,description,price,brand,category,stock,images\n"
+                + "iPhone 14,\"Black, 128GB\",20000000,Apple,phones,5,/a.jpg|/b.jpg\n"
+                + "Galaxy S23,,abc,Samsung,Phones,1,\n"
+                + "Pixel 8,\"Line one\nline two\",15000000,Google,Phones,,\n"
+                + "Mi 13,,9000000,Xiaomi,Tablets,3,\n"
+                + "Nokia 3310,,500000,Nokia,Phones,10,\n";
+
+        ProductImportResultDto result = productImportService.importCsv(stream(csv));
+
+        assertEquals(5, result.getProcessed());
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(2L, result.getErrors().get(0).getRecord());
+        assertEquals("Invalid price: abc", result.getErrors().get(0).getMessage());
+        assertEquals("Category not found with name: Tablets", result.getErrors().get(1).getMessage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        Object[] first = batches.getAllValues().get(0).get(0);
+        assertArrayEquals(new Object[]{"iPhone 14", "Black, 128GB", new BigDecimal("20000000"), "Apple", null, 1L, 5,
+                "[\"/a.jpg\",\"/b.jpg\"]"}, Arrays.copyOf(first, 8));
+        assertTrue(first[8] instanceof Timestamp);
+        verify(categoryCatalog, times(1)).all();
+        verify(imageStore).retain("/a.jpg", "/b.jpg");
+        verify(productService).indexProducts(List.of(41L, 42L));
+        verify(productService).indexProducts(List.of(43L));
+        verify(productService, never()).loadCatalogIndex();
+    }
+
+    @Test
+    public void givenNdjsonWithMalformedLine_whenImportNdjson_thenReportsLineAndImportsTheRest() throws Exception {
+        when(categoryCatalog.all()).thenReturn(List.of(CategoryDto.builder().id(7L).name("Watches").build()));
+        String ndjson = "{\"name\":\"Casio\",\"price\":1200000.50,\"brand\":\"Casio\",\"categoryId\":7,\"images\":[\"/c.jpg\"]}\n"
+                + "{\"name\":\"broken\"\n"
+                + "\n"
+                + "{\"name\":\"Seiko\",\"price\":3000000,\"brand\":\"Seiko\",\"categoryId\":8}\n";
+
+        ProductImportResultDto result = productImportService.importNdjson(stream(ndjson));
+
+        assertEquals(3, result.getProcessed());
+        assertEquals(1, result.getImported());
+        assertEquals(2L, result.getErrors().get(0).getRecord());
+        assertEquals("Category not found with id: 8", result.getErrors().get(1).getMessage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(0, new BigDecimal("1200000.5").compareTo((BigDecimal) batch.getValue().get(0)[2]));
+    }
+
+    @Test
+    public void givenCsvWithoutRequiredColumn_whenImportCsv_thenThrowsInvalidImportException() {
+        assertThrows(InvalidImportException.class,
+                () -> productImportService.importCsv(stream("name,brand,category\nx,y,z\n")));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
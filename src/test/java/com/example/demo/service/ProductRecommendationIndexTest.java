@@ -0,0 +1,104 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.OrderItemRepository;
+import com.example.demo.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductRecommendationIndexTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    private ProductRecommendationIndex recommendationIndex;
+
+    @BeforeEach
+    public void setup() {
+        recommendationIndex = new ProductRecommendationIndex(orderRepository, orderItemRepository, 3);
+    }
+
+    @Test
+    public void givenOrderHistory_whenLoad_thenRanksProductsBoughtTogetherMostOften() {
+        when(orderRepository.findMaxId()).thenReturn(3L);
+        when(orderItemRepository.streamOrderProductPairs(3L)).thenReturn(Stream.of(
+                new Object[]{1L, 10L}, new Object[]{1L, 20L}, new Object[]{1L, 30L},
+                new Object[]{2L, 10L}, new Object[]{2L, 30L},
+                new Object[]{3L, 40L}));
+
+        recommendationIndex.load();
+
+        assertEquals(List.of(30L, 20L), recommendationIndex.related(10L, 5));
+        assertEquals(List.of(30L), recommendationIndex.related(10L, 1));
+        assertTrue(recommendationIndex.related(40L, 5).isEmpty());
+    }
+
+    @Test
+    public void givenOrdersPlacedAfterLoad_whenOnOrderPlaced_thenOnlyNewOrdersAreCounted() {
+        when(orderRepository.findMaxId()).thenReturn(5L);
+        when(orderItemRepository.streamOrderProductPairs(5L)).thenReturn(Stream.empty());
+        recommendationIndex.load();
+
+        // Already part of the loaded history
+        recommendationIndex.onOrderPlaced(new OrderPlacedEvent(5L, Map.of(1L, 1, 2L, 1)));
+        recommendationIndex.onOrderPlaced(new OrderPlacedEvent(6L, Map.of(1L, 2, 3L, 1)));
+
+        assertEquals(List.of(3L), recommendationIndex.related(1L, 5));
+    }
+
+    @Test
+    public void givenOrderPlacedWhileLoadReadsTheMark_whenLoad_thenCountedOnce() throws Exception {
+        Thread[] placer = new Thread[1];
+        when(orderRepository.findMaxId()).thenAnswer(invocation -> {
+            // Committed just after the query: its event must wait for the mark rather than be dropped
+            placer[0] = new Thread(() -> recommendationIndex.onOrderPlaced(new OrderPlacedEvent(6L, Map.of(1L, 1, 3L, 1))));
+            placer[0].start();
+            Thread.sleep(100);
+            return 5L;
+        });
+        when(orderItemRepository.streamOrderProductPairs(5L)).thenReturn(Stream.<Object[]>of(
+                new Object[]{5L, 1L}, new Object[]{5L, 2L}));
+
+        recommendationIndex.load();
+        placer[0].join(5000);
+
+        assertEquals(List.of(2L, 3L), recommendationIndex.related(1L, 5));
+    }
+
+    @Test
+    public void givenFullNeighbourRow_whenNewNeighbourArrives_thenReplacesLeastFrequent() {
+        recommendationIndex.record(List.of(1L, 2L));
+        recommendationIndex.record(List.of(1L, 2L));
+        recommendationIndex.record(List.of(1L, 3L));
+        recommendationIndex.record(List.of(1L, 3L));
+        recommendationIndex.record(List.of(1L, 4L));
+        recommendationIndex.record(List.of(1L, 5L));
+
+        // 5 took the slot of 4 (count 1) and inherited its count
+        assertEquals(List.of(2L, 3L, 5L), recommendationIndex.related(1L, 5));
+    }
+
+    @Test
+    public void givenDeletedProduct_whenRemove_thenDisappearsFromRelated() {
+        recommendationIndex.record(List.of(1L, 2L, 3L));
+
+        recommendationIndex.remove(2L);
+
+        assertEquals(List.of(3L), recommendationIndex.related(1L, 5));
+        assertTrue(recommendationIndex.related(2L, 5).isEmpty());
+    }
+}
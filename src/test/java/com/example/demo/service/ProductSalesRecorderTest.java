@@ -0,0 +1,116 @@
+package com.example.demo.service;
+
+import com.example.demo.model.SalesDelta;
+import com.example.demo.repository.SalesDeltaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSalesRecorderTest {
+
+    @Mock
+    private SalesDeltaRepository salesDeltaRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductService productService;
+
+    private ProductSalesRecorder salesRecorder;
+
+    @BeforeEach
+    public void setup() {
+        salesRecorder = new ProductSalesRecorder(salesDeltaRepository, jdbcTemplate, transactionManager, productService, 3);
+    }
+
+    @Test
+    public void givenSoldAndReturnedUnits_whenRecord_thenJournalsOneRowPerChangedProduct() {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(7L, 2);
+        quantities.put(3L, -1);
+        quantities.put(5L, 0);
+
+        salesRecorder.record(quantities);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SalesDelta>> rows = ArgumentCaptor.forClass(List.class);
+        verify(salesDeltaRepository).saveAll(rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertEquals(7L, rows.getValue().get(0).getProductId());
+        assertEquals(2, rows.getValue().get(0).getQuantity());
+        assertEquals(-1, rows.getValue().get(1).getQuantity());
+    }
+
+    @Test
+    public void givenJournalledDeltas_whenFlush_thenWritesOneUpdatePerProductInIdOrderAndDeletesTheRowsRead() {
+        when(salesDeltaRepository.findAllByOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(delta(10L, 7L, 2), delta(11L, 3L, 1), delta(12L, 7L, -1)))
+                .thenReturn(List.of());
+
+        salesRecorder.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertEquals(1, batch.getValue().get(0)[0]);
+        assertEquals(3L, batch.getValue().get(0)[3]);
+        assertEquals(1, batch.getValue().get(1)[0]);
+        assertEquals(7L, batch.getValue().get(1)[3]);
+        verify(salesDeltaRepository).deleteAllByIdInBatch(List.of(10L, 11L, 12L));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> refreshed = ArgumentCaptor.forClass(Collection.class);
+        verify(productService).refreshReadModels(refreshed.capture());
+        assertEquals(List.of(3L, 7L), List.copyOf(refreshed.getValue()));
+    }
+
+    @Test
+    public void givenFailedFlush_whenFlush_thenKeepsTheRowsForTheNextAttempt() {
+        when(salesDeltaRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(delta(10L, 5L, 2)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        salesRecorder.flush();
+
+        verify(salesDeltaRepository, never()).deleteAllByIdInBatch(any());
+        verify(productService, never()).refreshReadModels(anyList());
+    }
+
+    @Test
+    public void givenNoDeltas_whenFlush_thenDoesNothing() {
+        when(salesDeltaRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of());
+
+        salesRecorder.flush();
+
+        verifyNoInteractions(jdbcTemplate, productService);
+    }
+
+    private static SalesDelta delta(Long id, Long productId, int quantity) {
+        return SalesDelta.builder().id(id).productId(productId).quantity(quantity).build();
+    }
+}
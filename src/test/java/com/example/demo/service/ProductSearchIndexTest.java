@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProductSearchIndexTest {
+
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup() {
+        searchIndex = new ProductSearchIndex();
+        searchIndex.rebuild(List.of(
+                product(1L, "Nồi chiên không dầu", "Lock&Lock", "Dung tích 5 lít"),
+                product(2L, "Áo thun nam basic", "Coolmate", "Chất liệu cotton"),
+                product(3L, "Tai nghe Bluetooth", "Sony", "Chống ồn, pin 30 giờ, dùng cho nồi cơm? không"),
+                product(4L, "Đồng hồ Casio", "Casio", "Dây thép không gỉ")
+        ));
+    }
+
+    @Test
+    public void givenQueryWithoutDiacritics_whenSearch_thenMatchesFoldedText() {
+        assertEquals(List.of(1L), searchIndex.search("noi chien"));
+        assertEquals(List.of(4L), searchIndex.search("dong ho"));
+    }
+
+    @Test
+    public void givenPartialLastToken_whenSearch_thenMatchesByPrefix() {
+        assertEquals(List.of(3L), searchIndex.search("tai ng"));
+    }
+
+    @Test
+    public void givenTermInNameAndDescription_whenSearch_thenNameMatchRanksFirst() {
+        List<Long> results = searchIndex.search("nồi");
+
+        assertEquals(1L, results.get(0));
+        assertTrue(results.contains(3L));
+    }
+
+    @Test
+    public void givenUpdatedAndRemovedProducts_whenSearch_thenReflectsChanges() {
+        searchIndex.upsert(product(2L, "Áo polo nam", "Coolmate", "Chất liệu cotton"));
+        searchIndex.remove(4L);
+
+        assertTrue(searchIndex.search("thun").isEmpty());
+        assertEquals(List.of(2L), searchIndex.search("polo"));
+        assertTrue(searchIndex.search("casio").isEmpty());
+    }
+
+    private ProductDto product(Long id, String name, String brand, String description) {
+        return ProductDto.builder()
+                .id(id)
+                .name(name)
+                .brand(brand)
+                .description(description)
+                .build();
+    }
+}
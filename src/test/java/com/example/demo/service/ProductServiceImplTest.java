@@ -1,6 +1,10 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CategoryDto;
+import com.example.demo.dto.CursorPageDto;
+import com.example.demo.dto.ProductBatchDto;
 import com.example.demo.dto.ProductDto;
+import com.example.demo.exception.InvalidCursorException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Category;
 import com.example.demo.model.Product;
@@ -9,25 +13,44 @@ import com.example.demo.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 
 @ExtendWith(MockitoExtension.class)
 public class ProductServiceImplTest {
@@ -38,6 +61,36 @@ public class ProductServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CategoryCatalog categoryCatalog;
+
+    @Mock
+    private ProductCatalogIndex catalogIndex;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ProductSuggestIndex suggestIndex;
+
+    @Mock
+    private ProductRecommendationIndex recommendationIndex;
+
+    @Mock
+    private ProductBestsellerIndex bestsellerIndex;
+
+    @Mock
+    private ProductImageProcessor imageProcessor;
+
+    @Mock
+    private ProductImageStore imageStore;
+
+    @Spy
+    private ProductDetailCache productDetailCache = new ProductDetailCache(1_000_000, Duration.ofMinutes(1));
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -74,7 +127,8 @@ public class ProductServiceImplTest {
 
     @Test
     public void givenProductDto_whenCreateProduct_thenReturnProductDto() {
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryCatalog.get(1L)).thenReturn(Optional.of(CategoryDto.builder().id(1L).name("Test Category").build()));
+        when(categoryRepository.getReferenceById(1L)).thenReturn(category);
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         ProductDto savedProductDto = productService.createProduct(productDto);
@@ -83,6 +137,62 @@ public class ProductServiceImplTest {
         assertEquals(product.getName(), savedProductDto.getName());
     }
 
+    @Test
+    public void givenUnknownCategory_whenCreateProduct_thenThrowsWithoutSaving() {
+        when(categoryCatalog.get(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> productService.createProduct(productDto));
+
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    public void givenSaveFails_whenCreateProduct_thenReleasesImageReferences() throws Exception {
+        MockMultipartFile image = new MockMultipartFile("images", "a.png", "image/png", new byte[]{1});
+        productDto.setImages(new MultipartFile[]{image});
+        when(categoryCatalog.get(1L)).thenReturn(Optional.of(CategoryDto.builder().id(1L).name("Test Category").build()));
+        when(categoryRepository.getReferenceById(1L)).thenReturn(category);
+        when(imageStore.store(image)).thenReturn("/images/a.png");
+        when(productRepository.save(any(Product.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> productService.createProduct(productDto));
+
+        verify(imageStore).retain("/images/a.png");
+        verify(imageStore, times(2)).release("/images/a.png");
+    }
+
+    @Test
+    public void givenConcurrentEdit_whenImageVariantsApplied_thenReleasesVariantsAndKeepsOriginals(@TempDir Path dir)
+            throws Exception {
+        MockMultipartFile image = new MockMultipartFile("images", "a.png", "image/png", new byte[]{1});
+        productDto.setImages(new MultipartFile[]{image});
+        product.setImages(new String[]{"/images/a.png"});
+        Path original = Files.createFile(dir.resolve("a.png"));
+        Path medium = Files.createFile(dir.resolve("a-medium.png"));
+        Path thumbnail = Files.createFile(dir.resolve("a-thumb.png"));
+        when(categoryCatalog.get(1L)).thenReturn(Optional.of(CategoryDto.builder().id(1L).name("Test Category").build()));
+        when(categoryRepository.getReferenceById(1L)).thenReturn(category);
+        when(imageStore.store(image)).thenReturn("/images/a.png");
+        when(imageStore.resolve("/images/a.png")).thenReturn(original);
+        when(imageStore.store(medium)).thenReturn("/images/m.png");
+        when(imageStore.store(thumbnail)).thenReturn("/images/t.png");
+        when(productRepository.save(any(Product.class)))
+                .thenReturn(product)
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        productService.createProduct(productDto);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<List<ProductImageProcessor.ImageVariants>>> onComplete = ArgumentCaptor.forClass(Consumer.class);
+        verify(imageProcessor).submit(any(), onComplete.capture());
+
+        onComplete.getValue().accept(List.of(new ProductImageProcessor.ImageVariants(original, medium, thumbnail)));
+
+        verify(imageStore).release("/images/m.png", "/images/t.png");
+        verify(imageStore, never()).release("/images/a.png", "/images/a.png");
+        assertFalse(Files.exists(medium));
+        assertFalse(Files.exists(thumbnail));
+    }
+
     @Test
     public void givenProductId_whenGetProductById_thenReturnProductDto() {
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
@@ -93,6 +203,34 @@ public class ProductServiceImplTest {
         assertEquals(product.getName(), retrievedProductDto.getName());
     }
 
+    @Test
+    public void givenCachedProduct_whenGetProductById_thenRepositoryIsQueriedOnce() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        productService.getProductById(1L);
+        ProductDto cachedProductDto = productService.getProductById(1L);
+
+        assertEquals(product.getName(), cachedProductDto.getName());
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void givenCachedIndexedAndStoredIds_whenGetProductsByIds_thenOneQueryAndRequestOrderWithMissingIds() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        productService.getProductById(1L);
+        ProductDto indexed = ProductDto.builder().id(2L).name("Indexed").build();
+        when(catalogIndex.get(any(Long.class))).thenAnswer(invocation ->
+                invocation.getArgument(0).equals(2L) ? Optional.of(indexed) : Optional.empty());
+        when(productRepository.findProductDtos(any(Specification.class), any(Sort.class)))
+                .thenReturn(List.of(ProductDto.builder().id(3L).name("Stored").build()));
+
+        ProductBatchDto batch = productService.getProductsByIds(List.of(3L, 1L, 4L, 2L, 3L));
+
+        assertEquals(List.of(3L, 1L, 2L), batch.getProducts().stream().map(ProductDto::getId).toList());
+        assertEquals(List.of(4L), batch.getMissingIds());
+        verify(productRepository, times(1)).findProductDtos(any(Specification.class), any(Sort.class));
+    }
+
     @Test
     public void givenNonExistingProductId_whenGetProductById_thenThrowsResourceNotFoundException() {
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
@@ -121,7 +259,8 @@ public class ProductServiceImplTest {
                 .build();
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryCatalog.get(1L)).thenReturn(Optional.of(CategoryDto.builder().id(1L).name("Test Category").build()));
+        when(categoryRepository.getReferenceById(1L)).thenReturn(category);
         when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
 
         ProductDto resultDto = productService.updateProduct(1L, updatedProductDto);
@@ -134,6 +273,40 @@ public class ProductServiceImplTest {
         assertEquals("Updated Color", resultDto.getColor());
     }
 
+    @Test
+    public void givenNewStock_whenUpdateProduct_thenPublishesTheChange() {
+        product.setStock(10);
+        ProductDto restock = ProductDto.builder().stock(25).build();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productService.updateProduct(1L, restock);
+
+        ArgumentCaptor<ProductStockChangedEvent> event = ArgumentCaptor.forClass(ProductStockChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().getProductId());
+        assertEquals(15, event.getValue().getDelta());
+    }
+
+    @Test
+    public void givenProductsChangedElsewhere_whenReconcileReadModels_thenReloadsChangedAndDropsDeleted() {
+        when(catalogIndex.isReady()).thenReturn(true);
+        when(catalogIndex.versions()).thenReturn(new HashMap<>(Map.of(1L, 1L, 2L, 3L, 3L, 1L)));
+        when(productRepository.findAllVersions()).thenReturn(List.of(
+                new Object[]{1L, 1L}, new Object[]{2L, 4L}, new Object[]{4L, 0L}));
+        ProductDto changed = ProductDto.builder().id(2L).name("Changed").build();
+        ProductDto created = ProductDto.builder().id(4L).name("Created").build();
+        when(productRepository.findProductDtos(any(Specification.class), any(Sort.class))).thenReturn(List.of(changed, created));
+
+        productService.reconcileReadModels();
+
+        verify(catalogIndex).upsertAll(List.of(changed, created));
+        verify(searchIndex).upsert(changed);
+        verify(searchIndex).upsert(created);
+        verify(catalogIndex).remove(3L);
+        verify(catalogIndex, never()).remove(1L);
+    }
+
     @Test
     public void givenProductId_whenDeleteProduct_thenProductIsDeleted() {
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
@@ -153,10 +326,10 @@ public class ProductServiceImplTest {
     @Test
     public void givenCriteria_whenGetProductsByCriteria_thenReturnProductDtoPage() {
         Pageable pageable = Pageable.unpaged();
-        List<Product> products = Collections.singletonList(product);
-        Page<Product> productPage = new PageImpl<>(products, pageable, products.size());
+        List<ProductDto> products = Collections.singletonList(productDto);
+        Page<ProductDto> productPage = new PageImpl<>(products, pageable, products.size());
 
-        when(productRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(productPage);
+        when(productRepository.findProductDtos(any(Specification.class), any(Pageable.class))).thenReturn(productPage);
 
         Page<ProductDto> resultPage = productService.getProductsByCriteria(
                 "Test Product",
@@ -171,4 +344,69 @@ public class ProductServiceImplTest {
         assertEquals(1, resultPage.getContent().size());
         assertEquals("Test Product", resultPage.getContent().get(0).getName());
     }
+
+    @Test
+    public void givenLoadedCatalogIndex_whenGetProductsByCriteria_thenServedFromIndex() {
+        Pageable pageable = Pageable.unpaged();
+        Page<ProductDto> indexedPage = new PageImpl<>(Collections.singletonList(productDto), pageable, 1);
+
+        when(catalogIndex.canServe(pageable)).thenReturn(true);
+        when(catalogIndex.filter("Test Product", 1L, null, null, null, null, pageable)).thenReturn(indexedPage);
+
+        Page<ProductDto> resultPage = productService.getProductsByCriteria(
+                "Test Product", "1", null, null, null, null, pageable);
+
+        assertEquals(1, resultPage.getTotalElements());
+        verify(productRepository, never()).findProductDtos(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    public void givenMoreRowsThanPageSize_whenScrollProducts_thenReturnsNextCursor() {
+        Product next = Product.builder().id(2L).name("Next Product").price(BigDecimal.valueOf(120)).category(category).build();
+        when(productRepository.findBy(any(Specification.class), any())).thenReturn(List.of(product, next));
+
+        CursorPageDto<ProductDto> firstPage = productService.scrollProducts(
+                null, 1, "price", "asc", null, null, null, null, null, null);
+
+        assertEquals(1, firstPage.getContent().size());
+        assertTrue(firstPage.isHasNext());
+        assertNotNull(firstPage.getNextCursor());
+
+        when(productRepository.findBy(any(Specification.class), any())).thenReturn(List.of(next));
+
+        CursorPageDto<ProductDto> secondPage = productService.scrollProducts(
+                firstPage.getNextCursor(), 1, "price", "asc", null, null, null, null, null, null);
+
+        assertEquals("Next Product", secondPage.getContent().get(0).getName());
+        assertFalse(secondPage.isHasNext());
+    }
+
+    @Test
+    public void givenZeroOrNegativeSize_whenScrollProducts_thenReturnsOneRowPage() {
+        Product next = Product.builder().id(2L).name("Next Product").price(BigDecimal.valueOf(120)).category(category).build();
+        when(productRepository.findBy(any(Specification.class), any())).thenReturn(List.of(product, next));
+
+        for (int size : new int[]{0, -5}) {
+            CursorPageDto<ProductDto> page = productService.scrollProducts(
+                    null, size, "price", "asc", null, null, null, null, null, null);
+
+            assertEquals(1, page.getSize());
+            assertEquals(1, page.getContent().size());
+            assertTrue(page.isHasNext());
+        }
+    }
+
+    @Test
+    public void givenUnknownSortDirection_whenScrollProducts_thenThrowsInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> productService.scrollProducts(
+                null, 10, "price", "sideways", null, null, null, null, null, null));
+    }
+
+    @Test
+    public void givenCursorForDifferentSort_whenScrollProducts_thenThrowsInvalidCursorException() {
+        String cursor = KeysetCursor.encode("price", Sort.Direction.ASC, "100", 1L);
+
+        assertThrows(InvalidCursorException.class, () -> productService.scrollProducts(
+                cursor, 10, "name", "asc", null, null, null, null, null, null));
+    }
 }
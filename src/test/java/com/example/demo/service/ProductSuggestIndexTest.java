@@ -0,0 +1,131 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductDto;
+import com.example.demo.dto.SuggestionDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProductSuggestIndexTest {
+
+    private ProductSuggestIndex suggestIndex;
+
+    @BeforeEach
+    public void setup() {
+        suggestIndex = new ProductSuggestIndex(3);
+        suggestIndex.rebuild(List.of(
+                product(1L, "Nồi chiên không dầu", "Lock&Lock", 1L, 50),
+                product(2L, "Nồi cơm điện", "Sharp", 1L, 120),
+                product(3L, "Nike Air Max", "Nike", 2L, 80),
+                product(4L, "Nike Air Force", "Nike", 2L, 30),
+                product(5L, "Áo thun nam", "Coolmate", 3L, 10)
+        ), Map.of(1L, "Đồ gia dụng", 2L, "Giày", 3L, "Thời trang"));
+    }
+
+    @Test
+    public void givenPrefixWithoutDiacritics_whenSuggest_thenReturnsMostSoldFirst() {
+        assertEquals(List.of("Nồi cơm điện", "Nồi chiên không dầu"), texts(suggestIndex.suggest("noi c", 10)));
+        assertEquals(List.of("Nồi chiên không dầu"), texts(suggestIndex.suggest("NỒI CHI", 10)));
+    }
+
+    @Test
+    public void givenBrandAndCategoryNames_whenSuggest_thenRanksThemBySalesOfTheirProducts() {
+        List<SuggestionDto> suggestions = suggestIndex.suggest("ni", 10);
+
+        // Nike sold 80 + 30
+        assertEquals(List.of("Nike", "Nike Air Max", "Nike Air Force"), texts(suggestions));
+        assertEquals("brand", suggestions.get(0).getType());
+        assertEquals(110, suggestions.get(0).getWeight());
+        SuggestionDto category = suggestIndex.suggest("gia dung", 10).get(0);
+        assertEquals("category", category.getType());
+        assertEquals(1L, category.getId());
+    }
+
+    @Test
+    public void givenLaterWord_whenSuggest_thenMatchesInsideName() {
+        assertEquals(List.of("Nike Air Max", "Nike Air Force"), texts(suggestIndex.suggest("air", 10)));
+        assertEquals(List.of("Nike Air Max"), texts(suggestIndex.suggest("ai", 1)));
+        assertTrue(suggestIndex.suggest("airx", 10).isEmpty());
+        assertTrue(suggestIndex.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    public void givenMutations_whenSuggest_thenReflectsChangesIncrementally() {
+        suggestIndex.upsert(product(4L, "Nike Air Force", "Nike", 2L, 500));
+        suggestIndex.upsert(product(6L, "Nike Pegasus", "Nike", 2L, 5));
+        suggestIndex.remove(3L);
+        suggestIndex.upsert(product(5L, "Áo polo nam", "Coolmate", 3L, 10));
+        suggestIndex.putCategory(3L, "Quần áo");
+
+        assertEquals(List.of("Nike", "Nike Air Force", "Nike Pegasus"), texts(suggestIndex.suggest("nike", 10)));
+        assertEquals(505, suggestIndex.suggest("nike", 1).get(0).getWeight());
+        assertTrue(suggestIndex.suggest("ao thun", 10).isEmpty());
+        assertEquals(List.of("Áo polo nam"), texts(suggestIndex.suggest("ao p", 10)));
+        assertTrue(suggestIndex.suggest("thoi trang", 10).isEmpty());
+        assertEquals(List.of("Quần áo"), texts(suggestIndex.suggest("quan", 10)));
+
+        suggestIndex.remove(1L);
+        suggestIndex.remove(2L);
+        assertTrue(suggestIndex.suggest("lock", 10).isEmpty());
+        assertTrue(suggestIndex.suggest("noi", 10).isEmpty());
+    }
+
+    @Test
+    public void givenRandomUpdates_whenSuggest_thenMatchesBruteForce() {
+        Random random = new Random(42);
+        String[] words = {"a", "ab", "abc", "b", "ba", "bad", "c", "ca", "cab"};
+        Map<Long, ProductDto> expected = new HashMap<>();
+        suggestIndex = new ProductSuggestIndex(5);
+        suggestIndex.rebuild(List.of(), Map.of());
+
+        for (int step = 0; step < 2000; step++) {
+            long id = random.nextInt(40);
+            if (random.nextInt(4) == 0) {
+                suggestIndex.remove(id);
+                expected.remove(id);
+            } else {
+                String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                ProductDto product = product(id, name, null, null, random.nextInt(20));
+                suggestIndex.upsert(product);
+                expected.put(id, product);
+            }
+
+            String query = words[random.nextInt(words.length)];
+            List<String> bruteForce = expected.values().stream()
+                    .filter(product -> product.getName().startsWith(query) || product.getName().contains(" " + query))
+                    .sorted(Comparator.comparingInt(ProductDto::getSold).reversed()
+                            .thenComparing(ProductDto::getName)
+                            .thenComparing(product -> "P:" + product.getId()))
+                    .limit(5)
+                    .map(ProductDto::getName)
+                    .collect(Collectors.toList());
+            assertEquals(bruteForce, texts(suggestIndex.suggest(query, 5)), "query " + query + " at step " + step);
+        }
+    }
+
+    private static List<String> texts(List<SuggestionDto> suggestions) {
+        List<String> texts = new ArrayList<>();
+        suggestions.forEach(suggestion -> texts.add(suggestion.getText()));
+        return texts;
+    }
+
+    private ProductDto product(Long id, String name, String brand, Long categoryId, int sold) {
+        return ProductDto.builder()
+                .id(id)
+                .name(name)
+                .brand(brand)
+                .categoryId(categoryId)
+                .sold(sold)
+                .build();
+    }
+}